@@ -0,0 +1,80 @@
+package org.example.benchmarks;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Closed-loop HTTP load against a running user-service: every client sends its next request as
+ * soon as the previous one completes. Meant for comparing the platform-thread and virtual-thread
+ * modes, e.g. at 2000 clients; no such comparison has been run yet, so there are no results to go by:
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar org.example.benchmarks.UserApiLoadGenerator \
+ *      "http://localhost:8080/users?limit=20" 2000 60
+ * </pre>
+ * Restart the service with {@code --spring.threads.virtual.enabled=true} (on JDK 21) for the
+ * second run, and warm both up with a short run first.
+ */
+public final class UserApiLoadGenerator {
+
+    private UserApiLoadGenerator() {
+    }
+
+    public static void main(String[] args) {
+        URI uri = URI.create(args.length > 0 ? args[0] : "http://localhost:8080/users?limit=20");
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+        Histogram latencies = new ConcurrentHistogram(TimeUnit.SECONDS.toMicros(60), 3);
+        LongAdder errors = new LongAdder();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        CompletableFuture.allOf(IntStream.range(0, clients)
+                        .mapToObj(client -> loop(httpClient, request, deadline, latencies, errors))
+                        .toArray(CompletableFuture[]::new))
+                .join();
+
+        System.out.printf("clients=%d duration=%ds requests=%d errors=%d throughput=%.1f req/s%n",
+                clients, seconds, latencies.getTotalCount(), errors.sum(),
+                (double) latencies.getTotalCount() / seconds);
+        System.out.printf("latency ms: p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f%n",
+                latencies.getValueAtPercentile(50) / 1000.0,
+                latencies.getValueAtPercentile(90) / 1000.0,
+                latencies.getValueAtPercentile(99) / 1000.0,
+                latencies.getValueAtPercentile(99.9) / 1000.0,
+                latencies.getMaxValue() / 1000.0);
+    }
+
+    private static CompletableFuture<Void> loop(HttpClient httpClient, HttpRequest request, long deadline,
+                                                Histogram latencies, LongAdder errors) {
+        if (System.nanoTime() >= deadline) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long start = System.nanoTime();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, ex) -> {
+                    if (ex != null || response.statusCode() >= 400) {
+                        errors.increment();
+                    } else {
+                        latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start),
+                                latencies.getHighestTrackableValue()));
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> loop(httpClient, request, deadline, latencies, errors));
+    }
+}
\ No newline at end of file
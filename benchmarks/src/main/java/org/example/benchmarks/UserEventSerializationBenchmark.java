@@ -0,0 +1,53 @@
+package org.example.benchmarks;
+
+import org.example.userservice.event.UserEvent;
+import org.example.userservice.event.UserEventDeserializer;
+import org.example.userservice.event.UserEventSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The value serializer configured in {@code KafkaProducerConfig}, against the JSON
+ * serializer user events were sent with before the shared binary format.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserEventSerializationBenchmark {
+
+    private static final String TOPIC = "user-events";
+
+    private final UserEventSerializer serializer = new UserEventSerializer();
+    private final UserEventDeserializer deserializer = new UserEventDeserializer();
+    private final JsonSerializer<UserEvent> jsonSerializer = new JsonSerializer<UserEvent>().noTypeInfo();
+    private final JsonDeserializer<UserEvent> jsonDeserializer = new JsonDeserializer<>(UserEvent.class, false);
+    private final UserEvent event = UserFixtures.event();
+    private final byte[] encoded = serializer.serialize(TOPIC, event);
+    private final byte[] json = jsonSerializer.serialize(TOPIC, event);
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public UserEvent deserialize() {
+        return deserializer.deserialize(TOPIC, encoded);
+    }
+
+    @Benchmark
+    public byte[] serializeJson() {
+        return jsonSerializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public UserEvent deserializeJson() {
+        return jsonDeserializer.deserialize(TOPIC, json);
+    }
+}
\ No newline at end of file
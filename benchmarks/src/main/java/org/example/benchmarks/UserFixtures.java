@@ -0,0 +1,82 @@
+package org.example.benchmarks;
+
+import org.example.userservice.dto.UserRequest;
+import org.example.userservice.dto.UserResponse;
+import org.example.userservice.entity.User;
+import org.example.userservice.event.UserEvent;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+final class UserFixtures {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 15, 10, 30);
+
+    private UserFixtures() {
+    }
+
+    /**
+     * Link builders resolve the base URI from the current request, as they would inside a controller.
+     */
+    static void bindRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users");
+        request.setServerName("localhost");
+        request.setServerPort(8080);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    static void unbindRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    static UserRequest request() {
+        return UserRequest.builder()
+                .name("John Doe")
+                .email("john.doe@example.com")
+                .age(30)
+                .build();
+    }
+
+    static User user(long id) {
+        return User.builder()
+                .id(id)
+                .name("User " + id)
+                .email("user" + id + "@example.com")
+                .age(30)
+                .createdAt(NOW)
+                .updatedAt(NOW)
+                .version(0L)
+                .build();
+    }
+
+    static UserResponse response(long id) {
+        return UserResponse.builder()
+                .userId(id)
+                .name("User " + id)
+                .email("user" + id + "@example.com")
+                .age(30)
+                .createdAt(NOW)
+                .updatedAt(NOW)
+                .version(0L)
+                .build();
+    }
+
+    static List<UserResponse> responses(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(UserFixtures::response)
+                .toList();
+    }
+
+    static UserEvent event() {
+        return UserEvent.builder()
+                .eventType(UserEvent.EventType.USER_CREATED)
+                .userId(123456L)
+                .email("john.doe@example.com")
+                .name("John Doe")
+                .build();
+    }
+}
\ No newline at end of file
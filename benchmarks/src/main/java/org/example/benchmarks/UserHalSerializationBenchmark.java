@@ -0,0 +1,78 @@
+package org.example.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.example.userservice.controller.hateoas.UserControllerHateoas;
+import org.example.userservice.dto.UserPage;
+import org.example.userservice.dto.UserResponse;
+import org.example.userservice.dto.UserSortField;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.AnnotationLinkRelationProvider;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Link assembly and HAL rendering of {@code GET /users/{id}} and of a {@code GET /users} page,
+ * with an ObjectMapper set up the way Spring HATEOAS configures it for {@code application/hal+json}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserHalSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private final UserControllerHateoas assembler = new UserControllerHateoas();
+    private ObjectMapper halObjectMapper;
+    private UserResponse user;
+    private EntityModel<UserResponse> userModel;
+    private CollectionModel<EntityModel<UserResponse>> pageModel;
+
+    @Setup
+    public void setUp() {
+        UserFixtures.bindRequest();
+
+        halObjectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .registerModule(new Jackson2HalModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        halObjectMapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                new AnnotationLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+
+        user = UserFixtures.response(1L);
+        userModel = assembler.toModel(user);
+        UserPage page = UserPage.builder().users(UserFixtures.responses(pageSize)).nextCursor((long) pageSize).build();
+        pageModel = assembler.toPageModel(page, null, pageSize, UserSortField.ID);
+    }
+
+    @TearDown
+    public void tearDown() {
+        UserFixtures.unbindRequest();
+    }
+
+    @Benchmark
+    public EntityModel<UserResponse> toModel() {
+        return assembler.toModel(user);
+    }
+
+    @Benchmark
+    public byte[] serializeUser() throws JsonProcessingException {
+        return halObjectMapper.writeValueAsBytes(userModel);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return halObjectMapper.writeValueAsBytes(pageModel);
+    }
+}
\ No newline at end of file
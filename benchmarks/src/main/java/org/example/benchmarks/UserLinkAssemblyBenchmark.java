@@ -0,0 +1,74 @@
+package org.example.benchmarks;
+
+import org.example.userservice.controller.UserController;
+import org.example.userservice.controller.hateoas.UserControllerHateoas;
+import org.example.userservice.dto.UserPage;
+import org.example.userservice.dto.UserResponse;
+import org.example.userservice.dto.UserSortField;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * Compares {@link UserControllerHateoas} with the previous assembler, which resolved every
+ * link through a {@code methodOn} proxy, on pages of 1, 100 and 10 000 users.
+ * <pre>
+ * mvn -pl benchmarks -am package -DskipTests
+ * java -jar benchmarks/target/benchmarks.jar UserLinkAssemblyBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserLinkAssemblyBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int users;
+
+    private UserPage page;
+    private UserControllerHateoas assembler;
+
+    @Setup
+    public void setUp() {
+        UserFixtures.bindRequest();
+        page = UserPage.builder().users(UserFixtures.responses(users)).nextCursor((long) users).build();
+        assembler = new UserControllerHateoas();
+    }
+
+    @TearDown
+    public void tearDown() {
+        UserFixtures.unbindRequest();
+    }
+
+    @Benchmark
+    public CollectionModel<EntityModel<UserResponse>> precomputedLinks() {
+        return assembler.toPageModel(page, null, users, UserSortField.ID);
+    }
+
+    @Benchmark
+    public CollectionModel<EntityModel<UserResponse>> methodOnLinks() {
+        List<EntityModel<UserResponse>> userResources = page.getUsers().stream()
+                .map(user -> EntityModel.of(user,
+                        linkTo(methodOn(UserController.class).getUserById(user.getUserId(), null)).withSelfRel(),
+                        linkTo(methodOn(UserController.class).updateUser(user.getUserId(), null)).withRel("update"),
+                        linkTo(methodOn(UserController.class).deleteUser(user.getUserId())).withRel("delete"),
+                        linkTo(methodOn(UserController.class).getAllUsers(null, null, null)).withRel("users")))
+                .toList();
+
+        CollectionModel<EntityModel<UserResponse>> collectionModel = CollectionModel.of(userResources,
+                linkTo(methodOn(UserController.class).getAllUsers(null, users, UserSortField.ID)).withSelfRel());
+        collectionModel.add(linkTo(methodOn(UserController.class)
+                .getAllUsers(page.getNextCursor(), users, UserSortField.ID)).withRel(IanaLinkRelations.NEXT));
+        return collectionModel;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package org.example.event;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Kafka deserializer reading the shared binary format into a service's own event class.
+ */
+public abstract class AbstractUserEventDeserializer<T> implements Deserializer<T> {
+
+    protected abstract T fromRecord(UserEventRecord record);
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return fromRecord(UserEventCodec.decode(data));
+        } catch (RuntimeException e) {
+            throw new SerializationException("Cannot decode user event from topic " + topic, e);
+        }
+    }
+}
\ No newline at end of file
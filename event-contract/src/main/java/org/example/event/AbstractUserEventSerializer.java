@@ -0,0 +1,24 @@
+package org.example.event;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka serializer writing a service's own event class in the shared binary format.
+ */
+public abstract class AbstractUserEventSerializer<T> implements Serializer<T> {
+
+    protected abstract UserEventRecord toRecord(T event);
+
+    @Override
+    public byte[] serialize(String topic, T data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return UserEventCodec.encode(toRecord(data));
+        } catch (IllegalArgumentException e) {
+            throw new SerializationException("Cannot encode user event for topic " + topic, e);
+        }
+    }
+}
\ No newline at end of file
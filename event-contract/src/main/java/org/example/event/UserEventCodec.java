@@ -0,0 +1,117 @@
+package org.example.event;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact binary encoding of {@link UserEventRecord}, modelled on Avro's binary format:
+ * <pre>
+ * magic byte (0) | schema id (int32, big endian) | event type index (varint)
+ *   | userId (union branch, zigzag varlong) | email (union branch, length, UTF-8) | name (same)
+ * </pre>
+ * A typical event is 40-60 bytes, against 100+ bytes of JSON with type headers.
+ */
+public final class UserEventCodec {
+
+    static final byte MAGIC_BYTE = 0;
+
+    private static final int NULL_BRANCH = 0;
+    private static final int VALUE_BRANCH = 1;
+
+    private UserEventCodec() {
+    }
+
+    public static byte[] encode(UserEventRecord event) {
+        return encode(event, UserEventSchema.CURRENT);
+    }
+
+    static byte[] encode(UserEventRecord event, UserEventSchema schema) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        out.write(MAGIC_BYTE);
+        int schemaId = schema.getId();
+        out.write(schemaId >>> 24);
+        out.write(schemaId >>> 16);
+        out.write(schemaId >>> 8);
+        out.write(schemaId);
+
+        writeVarLong(out, schema.eventTypeIndex(event.eventType()));
+        if (event.userId() == null) {
+            writeVarLong(out, NULL_BRANCH);
+        } else {
+            writeVarLong(out, VALUE_BRANCH);
+            writeVarLong(out, zigZag(event.userId()));
+        }
+        writeNullableString(out, event.email());
+        writeNullableString(out, event.name());
+        return out.toByteArray();
+    }
+
+    public static UserEventRecord decode(byte[] data) {
+        ByteBuffer in = ByteBuffer.wrap(data);
+        if (in.remaining() < 5 || in.get() != MAGIC_BYTE) {
+            throw new IllegalArgumentException("Not an encoded user event");
+        }
+        UserEventSchema schema = UserEventSchema.forId(in.getInt());
+
+        return switch (schema) {
+            case V1 -> new UserEventRecord(
+                    schema.eventType((int) readVarLong(in)),
+                    readVarLong(in) == NULL_BRANCH ? null : unZigZag(readVarLong(in)),
+                    readNullableString(in),
+                    readNullableString(in));
+        };
+    }
+
+    private static void writeNullableString(ByteArrayOutputStream out, String value) {
+        if (value == null) {
+            writeVarLong(out, NULL_BRANCH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, VALUE_BRANCH);
+        writeVarLong(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static String readNullableString(ByteBuffer in) {
+        if (readVarLong(in) == NULL_BRANCH) {
+            return null;
+        }
+        int length = (int) readVarLong(in);
+        if (length < 0 || length > in.remaining()) {
+            throw new IllegalArgumentException("Invalid string length: " + length);
+        }
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package org.example.event;
+
+/**
+ * Wire-level view of a user event, shared by the producing and consuming services.
+ * {@code eventType} holds the enum constant name, e.g. {@code USER_CREATED}.
+ */
+public record UserEventRecord(String eventType, Long userId, String email, String name) {
+}
\ No newline at end of file
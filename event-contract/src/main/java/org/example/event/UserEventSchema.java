@@ -0,0 +1,53 @@
+package org.example.event;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Local stand-in for a schema registry. Every encoded event carries the id of the schema
+ * it was written with, so readers can decode older versions after the schema evolves.
+ * Existing entries must never change; a new field or event type means a new version.
+ */
+public enum UserEventSchema {
+
+    /**
+     * {@code eventType: enum, userId: [null, long], email: [null, string], name: [null, string]}.
+     */
+    V1(1, List.of("USER_CREATED", "USER_UPDATED", "USER_DELETED"));
+
+    public static final UserEventSchema CURRENT = V1;
+
+    private final int id;
+    private final List<String> eventTypes;
+
+    UserEventSchema(int id, List<String> eventTypes) {
+        this.id = id;
+        this.eventTypes = eventTypes;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int eventTypeIndex(String eventType) {
+        int index = eventTypes.indexOf(eventType);
+        if (index < 0) {
+            throw new IllegalArgumentException("Event type " + eventType + " is not part of schema " + id);
+        }
+        return index;
+    }
+
+    public String eventType(int index) {
+        if (index < 0 || index >= eventTypes.size()) {
+            throw new IllegalArgumentException("Event type index " + index + " is not part of schema " + id);
+        }
+        return eventTypes.get(index);
+    }
+
+    public static UserEventSchema forId(int id) {
+        return Arrays.stream(values())
+                .filter(schema -> schema.id == id)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown user event schema id: " + id));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,61 @@
+package org.example.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserEventCodecTest {
+
+    @Test
+    void encodeDecode_RoundTripsAllFields() {
+        UserEventRecord event = new UserEventRecord("USER_UPDATED", 123456789L, "john@example.com", "Иван Петров");
+
+        UserEventRecord decoded = UserEventCodec.decode(UserEventCodec.encode(event));
+
+        assertEquals(event, decoded);
+    }
+
+    @Test
+    void encodeDecode_KeepsNullFields() {
+        UserEventRecord event = new UserEventRecord("USER_DELETED", null, null, null);
+
+        assertEquals(event, UserEventCodec.decode(UserEventCodec.encode(event)));
+    }
+
+    @Test
+    void encode_EmbedsSchemaIdAndIsSmallerThanJson() {
+        UserEventRecord event = new UserEventRecord("USER_CREATED", 42L, "john@example.com", "John Doe");
+        String json = "{\"eventType\":\"USER_CREATED\",\"email\":\"john@example.com\","
+                + "\"userId\":42,\"name\":\"John Doe\"}";
+
+        byte[] encoded = UserEventCodec.encode(event);
+
+        assertEquals(UserEventCodec.MAGIC_BYTE, encoded[0]);
+        assertEquals(UserEventSchema.CURRENT.getId(), encoded[4]);
+        assertTrue(encoded.length < json.getBytes(StandardCharsets.UTF_8).length / 2);
+    }
+
+    @Test
+    void decode_UnknownSchemaId_Fails() {
+        byte[] encoded = UserEventCodec.encode(new UserEventRecord("USER_CREATED", 1L, "a@b.c", "A"));
+        encoded[4] = 99;
+
+        assertThrows(IllegalArgumentException.class, () -> UserEventCodec.decode(encoded));
+    }
+
+    @Test
+    void decode_NotAnEncodedEvent_Fails() {
+        byte[] json = "{\"eventType\":\"USER_CREATED\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(IllegalArgumentException.class, () -> UserEventCodec.decode(json));
+    }
+
+    @Test
+    void encode_UnknownEventType_Fails() {
+        UserEventRecord event = new UserEventRecord("USER_RENAMED", 1L, "a@b.c", "A");
+
+        assertThrows(IllegalArgumentException.class, () -> UserEventCodec.encode(event));
+    }
+}
\ No newline at end of file
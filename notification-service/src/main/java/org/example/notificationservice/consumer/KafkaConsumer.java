@@ -1,5 +1,6 @@
 package org.example.notificationservice.consumer;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.notificationservice.dto.UserEventDTO;
@@ -15,6 +16,7 @@ public class KafkaConsumer {
     private final NotificationService notificationService;
 
     @KafkaListener(topics = "${kafka.topic.user-events}", groupId = "${spring.kafka.consumer.group-id}")
+    @Timed(value = "notification.events.consume", description = "Time to process one user event from Kafka")
     public void consumeUserEvent(UserEventDTO event) {
         log.info("Received user event from Kafka: {}", event);
         notificationService.handleUserEvent(event);
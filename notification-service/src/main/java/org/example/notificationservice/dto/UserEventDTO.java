@@ -17,6 +17,7 @@ public class UserEventDTO {
 
     public enum EventType {
         USER_CREATED,
+        USER_UPDATED,
         USER_DELETED
     }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package org.example.notificationservice.serialization;
+
+import org.example.event.AbstractUserEventDeserializer;
+import org.example.event.UserEventRecord;
+import org.example.notificationservice.dto.UserEventDTO;
+
+public class UserEventDTODeserializer extends AbstractUserEventDeserializer<UserEventDTO> {
+
+    @Override
+    protected UserEventDTO fromRecord(UserEventRecord record) {
+        return UserEventDTO.builder()
+                .eventType(UserEventDTO.EventType.valueOf(record.eventType()))
+                .userId(record.userId())
+                .email(record.email())
+                .name(record.name())
+                .build();
+    }
+}
\ No newline at end of file
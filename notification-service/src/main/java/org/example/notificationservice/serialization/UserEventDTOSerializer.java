@@ -0,0 +1,13 @@
+package org.example.notificationservice.serialization;
+
+import org.example.event.AbstractUserEventSerializer;
+import org.example.event.UserEventRecord;
+import org.example.notificationservice.dto.UserEventDTO;
+
+public class UserEventDTOSerializer extends AbstractUserEventSerializer<UserEventDTO> {
+
+    @Override
+    protected UserEventRecord toRecord(UserEventDTO event) {
+        return new UserEventRecord(event.getEventType().name(), event.getUserId(), event.getEmail(), event.getName());
+    }
+}
\ No newline at end of file
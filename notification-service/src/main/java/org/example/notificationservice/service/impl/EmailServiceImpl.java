@@ -1,5 +1,6 @@
 package org.example.notificationservice.service.impl;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.notificationservice.service.EmailService;
@@ -19,6 +20,7 @@ public class EmailServiceImpl implements EmailService {
     private String fromEmail;
 
     @Override
+    @Timed(value = "notification.email.send", description = "Time to hand an email over to the SMTP server")
     public void sendEmail(String to, String subject, String text) {
         try {
             SimpleMailMessage message = new SimpleMailMessage();
@@ -1,5 +1,6 @@
 package org.example.notificationservice.service.impl;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.notificationservice.dto.UserEventDTO;
@@ -11,6 +12,7 @@ import org.springframework.stereotype.Service;
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Timed(value = "notification.service", description = "NotificationService calls, tagged by method and exception")
 public class NotificationServiceImpl implements NotificationService {
 
     private final EmailService emailService;
@@ -32,6 +34,9 @@ public class NotificationServiceImpl implements NotificationService {
             case USER_CREATED:
                 sendUserCreatedEmail(event.getEmail(), event.getName());
                 break;
+            case USER_UPDATED:
+                log.debug("No notification for updated user: {}", event.getUserId());
+                break;
             case USER_DELETED:
                 sendUserDeletedEmail(event.getEmail(), event.getName());
                 break;
@@ -0,0 +1,82 @@
+package org.example.notificationservice.integration;
+
+import org.example.notificationservice.NotificationApplication;
+import org.example.notificationservice.dto.UserEventDTO;
+import org.example.notificationservice.service.NotificationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(classes = NotificationApplication.class, properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.auto-offset-reset=earliest",
+        "spring.kafka.listener.concurrency=4"
+})
+@EmbeddedKafka(partitions = 4, topics = "user-events")
+@DirtiesContext
+class KafkaOrderingIntegrationTest {
+
+    private static final int USERS = 40;
+    private static final List<UserEventDTO.EventType> LIFECYCLE = List.of(
+            UserEventDTO.EventType.USER_CREATED,
+            UserEventDTO.EventType.USER_UPDATED,
+            UserEventDTO.EventType.USER_DELETED);
+
+    @Autowired
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @MockBean
+    private NotificationService notificationService;
+
+    @Test
+    void keyedEvents_AreHandledInOrderPerUser_AcrossConcurrentConsumers() {
+        Map<Long, List<UserEventDTO.EventType>> handled = new ConcurrentHashMap<>();
+        Set<String> consumerThreads = ConcurrentHashMap.newKeySet();
+        doAnswer(invocation -> {
+            UserEventDTO event = invocation.getArgument(0);
+            consumerThreads.add(Thread.currentThread().getName());
+            Thread.sleep(ThreadLocalRandom.current().nextInt(5));
+            handled.computeIfAbsent(event.getUserId(), id -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(event.getEventType());
+            return null;
+        }).when(notificationService).handleUserEvent(any(UserEventDTO.class));
+
+        for (UserEventDTO.EventType eventType : LIFECYCLE) {
+            for (long userId = 1; userId <= USERS; userId++) {
+                UserEventDTO event = UserEventDTO.builder()
+                        .eventType(eventType)
+                        .userId(userId)
+                        .email("user" + userId + "@example.com")
+                        .name("User " + userId)
+                        .build();
+                kafkaTemplate.send("user-events", String.valueOf(userId), event);
+            }
+        }
+        kafkaTemplate.flush();
+
+        await().atMost(30, TimeUnit.SECONDS).untilAsserted(() ->
+                assertThat(handled.values().stream().mapToInt(List::size).sum()).isEqualTo(USERS * LIFECYCLE.size()));
+
+        assertThat(handled).hasSize(USERS);
+        handled.forEach((userId, events) -> assertThat(events).as("events of user %d", userId).isEqualTo(LIFECYCLE));
+        assertThat(consumerThreads).hasSizeGreaterThan(1);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,41 @@
+package org.example.notificationservice.serialization;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.example.notificationservice.dto.UserEventDTO;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserEventDTODeserializerTest {
+
+    private final UserEventDTOSerializer serializer = new UserEventDTOSerializer();
+    private final UserEventDTODeserializer deserializer = new UserEventDTODeserializer();
+
+    @Test
+    void deserialize_ShouldReadSerializedEvent() {
+        UserEventDTO event = UserEventDTO.builder()
+                .eventType(UserEventDTO.EventType.USER_CREATED)
+                .email("test@example.com")
+                .name("Test User")
+                .userId(1L)
+                .build();
+
+        UserEventDTO result = deserializer.deserialize("user-events", serializer.serialize("user-events", event));
+
+        assertEquals(event, result);
+    }
+
+    @Test
+    void deserialize_ShouldRejectJsonPayload() {
+        byte[] json = "{\"eventType\":\"USER_CREATED\",\"userId\":1}".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(SerializationException.class, () -> deserializer.deserialize("user-events", json));
+    }
+
+    @Test
+    void deserialize_ShouldReturnNullForTombstone() {
+        assertNull(deserializer.deserialize("user-events", null));
+    }
+}
\ No newline at end of file
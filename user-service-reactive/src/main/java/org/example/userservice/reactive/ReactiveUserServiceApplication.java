@@ -0,0 +1,14 @@
+package org.example.userservice.reactive;
+
+import org.example.userservice.mapper.UserMapperImpl;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+
+@SpringBootApplication
+@Import(UserMapperImpl.class)
+public class ReactiveUserServiceApplication {
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveUserServiceApplication.class, args);
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.userservice.reactive.config;
+
+import org.example.userservice.dto.UserSortField;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.hateoas.config.EnableHypermediaSupport;
+import org.springframework.hateoas.config.EnableHypermediaSupport.HypermediaType;
+import org.springframework.hateoas.support.WebStack;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+@Configuration
+@EnableHypermediaSupport(type = HypermediaType.HAL, stacks = WebStack.WEBFLUX)
+public class WebConfig implements WebFluxConfigurer {
+
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverter(String.class, UserSortField.class, UserSortField::fromParam);
+    }
+}
@@ -0,0 +1,260 @@
+package org.example.userservice.reactive.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.example.userservice.dto.UserBatchResponse;
+import org.example.userservice.dto.UserPatchRequest;
+import org.example.userservice.dto.UserRequest;
+import org.example.userservice.dto.UserResponse;
+import org.example.userservice.dto.UserSortField;
+import org.example.userservice.reactive.controller.export.ReactiveUserNdjsonWriter;
+import org.example.userservice.reactive.controller.hateoas.ReactiveUserControllerHateoas;
+import org.example.userservice.reactive.service.ReactiveUserService;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+
+@RestController
+@RequestMapping("/users")
+@RequiredArgsConstructor
+@Tag(name = "User Management", description = "APIs for managing users")
+public class ReactiveUserController {
+
+    private final ReactiveUserService userService;
+    private final ReactiveUserControllerHateoas userControllerHateoas;
+    private final ReactiveUserNdjsonWriter userNdjsonWriter;
+
+    @Operation(
+            summary = "Create a new user",
+            description = "Creates a new user with the provided details"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "User created successfully",
+                    content = @Content(schema = @Schema(implementation = UserResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid input data"
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Email already exists"
+            )
+    })
+    @PostMapping
+    public Mono<ResponseEntity<EntityModel<UserResponse>>> createUser(
+            @Valid @RequestBody UserRequest userRequest,
+            ServerWebExchange exchange) {
+        return userService.createUser(userRequest)
+                .map(response -> ResponseEntity.status(HttpStatus.CREATED)
+                        .body(userControllerHateoas.toModel(response, exchange.getRequest())));
+    }
+
+    @Operation(
+            summary = "Create users in bulk",
+            description = "Creates up to users.batch.max-size users in one request. "
+                    + "Each item is reported as CREATED, CONFLICT or INVALID by its index"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Batch processed",
+                    content = @Content(schema = @Schema(implementation = UserBatchResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Batch is too large"
+            )
+    })
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<UserBatchResponse>> createUsers(@RequestBody List<UserRequest> userRequests) {
+        return userService.createUsers(userRequests)
+                .map(ResponseEntity::ok);
+    }
+
+    @Operation(
+            summary = "Get user by ID",
+            description = "Retrieves a user by their unique identifier"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "User found",
+                    content = @Content(schema = @Schema(implementation = UserResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "User not modified since the given ETag or date"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "User not found"
+            )
+    })
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<EntityModel<UserResponse>>> getUserById(
+            @Parameter(description = "ID of the user to retrieve", required = true)
+            @PathVariable Long id,
+            ServerWebExchange exchange) {
+        return userService.getUserById(id)
+                // При совпадении ETag или даты checkNotModified выставляет 304, тело не собираем
+                .filter(response -> !exchange.checkNotModified(eTag(response), lastModified(response)))
+                .map(response -> ResponseEntity.ok(userControllerHateoas.toModel(response, exchange.getRequest())));
+    }
+
+    private static String eTag(UserResponse user) {
+        return user.getVersion() != null ? "\"" + user.getVersion() + "\"" : null;
+    }
+
+    private static Instant lastModified(UserResponse user) {
+        return user.getUpdatedAt() != null
+                ? user.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant()
+                : Instant.ofEpochMilli(-1);
+    }
+
+    @Operation(
+            summary = "Get users page",
+            description = "Retrieves a page of users using keyset pagination. "
+                    + "Pass the id from the `next` link as `after` to get the following page"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Page of users retrieved successfully"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid paging parameters"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Cursor user not found"
+            )
+    })
+    @GetMapping
+    public Mono<ResponseEntity<CollectionModel<EntityModel<UserResponse>>>> getAllUsers(
+            @Parameter(description = "ID of the last user of the previous page")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Maximum number of users on the page")
+            @RequestParam(defaultValue = "20") Integer limit,
+            @Parameter(description = "Sort order: id or createdAt")
+            @RequestParam(defaultValue = "id") UserSortField sort,
+            ServerWebExchange exchange) {
+        return userService.getAllUsers(after, limit, sort)
+                .map(page -> ResponseEntity.ok(
+                        userControllerHateoas.toPageModel(page, after, limit, sort, exchange.getRequest())));
+    }
+
+    @Operation(
+            summary = "Export all users",
+            description = "Streams every user as newline-delimited JSON, ordered by id"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Users streamed successfully"
+    )
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<DataBuffer>> exportUsers(ServerWebExchange exchange) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(userNdjsonWriter.write(userService.exportUsers(), exchange.getResponse().bufferFactory()));
+    }
+
+    @Operation(
+            summary = "Update user",
+            description = "Updates an existing user's information"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "User updated successfully"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "User not found"
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "New email already exists"
+            )
+    })
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<EntityModel<UserResponse>>> updateUser(
+            @Parameter(description = "ID of the user to update", required = true)
+            @PathVariable Long id,
+            @Valid @RequestBody UserRequest userRequest,
+            ServerWebExchange exchange) {
+        return userService.updateUser(id, userRequest)
+                .map(response -> ResponseEntity.ok(userControllerHateoas.toModel(response, exchange.getRequest())));
+    }
+
+    @Operation(
+            summary = "Partially update user",
+            description = "Changes only the given fields if the user still has the given version"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "User updated successfully"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "User not found"
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "User was modified concurrently or new email already exists"
+            )
+    })
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<EntityModel<UserResponse>>> patchUser(
+            @Parameter(description = "ID of the user to update", required = true)
+            @PathVariable Long id,
+            @Valid @RequestBody UserPatchRequest patchRequest,
+            ServerWebExchange exchange) {
+        return userService.patchUser(id, patchRequest)
+                .map(response -> ResponseEntity.ok(userControllerHateoas.toModel(response, exchange.getRequest())));
+    }
+
+    @Operation(
+            summary = "Delete user",
+            description = "Deletes a user by their ID"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "204",
+                    description = "User deleted successfully"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "User not found"
+            )
+    })
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteUser(
+            @Parameter(description = "ID of the user to delete", required = true)
+            @PathVariable Long id) {
+        return userService.deleteUser(id)
+                .then(Mono.fromSupplier(() -> ResponseEntity.noContent().build()));
+    }
+}
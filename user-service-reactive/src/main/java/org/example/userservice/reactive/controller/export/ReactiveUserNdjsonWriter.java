@@ -0,0 +1,48 @@
+package org.example.userservice.reactive.controller.export;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.example.userservice.dto.UserResponse;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.io.UncheckedIOException;
+
+/**
+ * Encodes users as newline-delimited JSON, one buffer per line, in the same shape as the blocking export.
+ */
+@Component
+public class ReactiveUserNdjsonWriter {
+
+    private final ObjectWriter writer;
+
+    public ReactiveUserNdjsonWriter(ObjectMapper objectMapper) {
+        this.writer = objectMapper.copy()
+                .addMixIn(UserResponse.class, WithoutLinks.class)
+                .writerFor(UserResponse.class);
+    }
+
+    public Flux<DataBuffer> write(Flux<UserResponse> users, DataBufferFactory bufferFactory) {
+        return users.map(user -> bufferFactory.wrap(line(user)));
+    }
+
+    private byte[] line(UserResponse user) {
+        try {
+            byte[] json = writer.writeValueAsBytes(user);
+            byte[] line = new byte[json.length + 1];
+            System.arraycopy(json, 0, line, 0, json.length);
+            line[json.length] = '\n';
+            return line;
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @JsonIgnoreProperties("links")
+    private abstract static class WithoutLinks {
+    }
+}
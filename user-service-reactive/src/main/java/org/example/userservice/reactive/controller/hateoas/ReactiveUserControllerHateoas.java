@@ -0,0 +1,73 @@
+package org.example.userservice.reactive.controller.hateoas;
+
+import org.example.userservice.dto.UserPage;
+import org.example.userservice.dto.UserResponse;
+import org.example.userservice.dto.UserSortField;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+
+/**
+ * Builds the same links as the blocking {@code UserControllerHateoas}, resolving the {@code /users}
+ * URI from the given request: WebFlux has no request-bound context for {@code linkTo} to read it from.
+ */
+@Component
+public class ReactiveUserControllerHateoas {
+
+    public EntityModel<UserResponse> toModel(UserResponse user, ServerHttpRequest request) {
+        String usersUri = usersUri(request);
+        return toModel(user, usersUri, Link.of(usersUri, "users"));
+    }
+
+    public CollectionModel<EntityModel<UserResponse>> toPageModel(UserPage page, Long after, int limit,
+                                                                  UserSortField sort, ServerHttpRequest request) {
+        String usersUri = usersUri(request);
+        Link usersLink = Link.of(usersUri, "users");
+        List<EntityModel<UserResponse>> userResources = page.getUsers().stream()
+                .map(user -> toModel(user, usersUri, usersLink))
+                .toList();
+
+        CollectionModel<EntityModel<UserResponse>> collectionModel = CollectionModel.of(userResources,
+                Link.of(pageUri(usersUri, after, limit, sort)).withSelfRel());
+
+        if (page.getNextCursor() != null) {
+            collectionModel.add(Link.of(pageUri(usersUri, page.getNextCursor(), limit, sort))
+                    .withRel(IanaLinkRelations.NEXT));
+        }
+        return collectionModel;
+    }
+
+    private EntityModel<UserResponse> toModel(UserResponse user, String usersUri, Link usersLink) {
+        String userUri = usersUri + "/" + user.getUserId();
+        return EntityModel.of(user,
+                Link.of(userUri).withSelfRel(),
+                Link.of(userUri, "update"),
+                Link.of(userUri, "delete"),
+                usersLink
+        );
+    }
+
+    private static String pageUri(String usersUri, Long after, int limit, UserSortField sort) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(usersUri);
+        if (after != null) {
+            builder.queryParam("after", after);
+        }
+        return builder.queryParam("limit", limit)
+                .queryParam("sort", sort.getParam())
+                .toUriString();
+    }
+
+    private static String usersUri(ServerHttpRequest request) {
+        return UriComponentsBuilder.fromUri(request.getURI())
+                .replacePath(request.getPath().contextPath().value() + "/users")
+                .replaceQuery(null)
+                .fragment(null)
+                .toUriString();
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.userservice.reactive.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.example.userservice.event.UserEvent;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Records user events in the same {@code user_event_outbox} table as the blocking service,
+ * as part of the caller's transaction. They reach Kafka through
+ * {@link ReactiveUserEventOutboxRelay} only after that transaction commits.
+ */
+@Component
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class ReactiveUserEventOutbox {
+
+    private static final String INSERT = "insert into user_event_outbox (id, event_type, user_id, email, name, created_at) "
+            + "values (nextval('user_event_outbox_seq'), $1, $2, $3, $4, $5)";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Void> enqueue(UserEvent event) {
+        return enqueueAll(List.of(event));
+    }
+
+    public Mono<Void> enqueueAll(List<UserEvent> events) {
+        if (events.isEmpty()) {
+            return Mono.empty();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return databaseClient.inConnectionMany(connection -> {
+                    var statement = connection.createStatement(INSERT);
+                    for (int i = 0; i < events.size(); i++) {
+                        if (i > 0) {
+                            statement.add();
+                        }
+                        UserEvent event = events.get(i);
+                        statement.bind("$1", event.getEventType().name())
+                                .bind("$2", event.getUserId())
+                                .bind("$3", event.getEmail())
+                                .bind("$4", event.getName())
+                                .bind("$5", now);
+                    }
+                    return Mono.from(statement.execute())
+                            .flatMapMany(result -> result.getRowsUpdated());
+                })
+                .then();
+    }
+}
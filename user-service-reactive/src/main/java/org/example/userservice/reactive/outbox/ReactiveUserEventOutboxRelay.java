@@ -0,0 +1,168 @@
+package org.example.userservice.reactive.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.example.userservice.event.UserEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderRecord;
+import reactor.kafka.sender.SenderResult;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Publishes pending outbox events to Kafka through {@link KafkaSender}, with the same claim protocol
+ * as the blocking service's relay, so both can drain the same table. A batch is claimed by setting
+ * {@code claimed_until} in one statement, then sent with no transaction or row lock held; events
+ * acknowledged within one deadline are marked as dispatched and the rest are released. An event is
+ * only claimed while no earlier event of its user is pending, which keeps each user's events in order.
+ */
+@Slf4j
+@Component
+public class ReactiveUserEventOutboxRelay {
+
+    private static final String CLAIM = """
+            update user_event_outbox set claimed_until = :claimedUntil
+            where id in (select e.id from user_event_outbox e
+                         where e.dispatched_at is null
+                           and (e.claimed_until is null or e.claimed_until < :now)
+                           and not exists (select 1 from user_event_outbox p
+                                           where p.user_id = e.user_id and p.dispatched_at is null and p.id < e.id)
+                         order by e.id asc
+                         limit :limit
+                         for update skip locked)
+            returning id, event_type, user_id, email, name
+            """;
+
+    private final DatabaseClient databaseClient;
+    private final KafkaSender<String, UserEvent> kafkaSender;
+
+    @Value("${kafka.topic.user-events}")
+    private String userEventsTopic;
+
+    @Value("${outbox.relay.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${outbox.relay.send-timeout-ms:10000}")
+    private long sendTimeoutMs = 10000;
+
+    @Value("${outbox.relay.claim-ttl-ms:60000}")
+    private long claimTtlMs = 60000;
+
+    @Value("${outbox.cleanup.retention-hours:24}")
+    private long retentionHours = 24;
+
+    public ReactiveUserEventOutboxRelay(DatabaseClient databaseClient,
+                                        KafkaSender<String, UserEvent> kafkaSender) {
+        this.databaseClient = databaseClient;
+        this.kafkaSender = kafkaSender;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:200}")
+    public Mono<Long> relay() {
+        return claim()
+                .collectList()
+                .flatMap(records -> records.isEmpty() ? Mono.just(0L) : send(records))
+                .doOnNext(dispatched -> log.debug("Relayed {} outbox events", dispatched))
+                .onErrorResume(e -> {
+                    log.warn("Outbox relay run failed, will retry: {}", e.getMessage());
+                    return Mono.just(0L);
+                });
+    }
+
+    /**
+     * Claims the oldest pending events for {@code claimTtlMs}. The statement commits on its own, so
+     * no row lock or connection is held while sending; if this relay dies, the claim expires.
+     */
+    private Flux<SenderRecord<String, UserEvent, Long>> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        return databaseClient.sql(CLAIM)
+                .bind("now", now)
+                .bind("claimedUntil", now.plus(claimTtlMs, ChronoUnit.MILLIS))
+                .bind("limit", batchSize)
+                .map(row -> SenderRecord.create(toRecord(UserEvent.builder()
+                        .eventType(UserEvent.EventType.valueOf(row.get("event_type", String.class)))
+                        .userId(row.get("user_id", Long.class))
+                        .email(row.get("email", String.class))
+                        .name(row.get("name", String.class))
+                        .build()), row.get("id", Long.class)))
+                .all();
+    }
+
+    private Mono<Long> send(List<SenderRecord<String, UserEvent, Long>> records) {
+        // Один срок на всю пачку: неподтверждённые к нему события освобождаются до следующего запуска
+        return kafkaSender.send(Flux.fromIterable(records))
+                .take(Duration.ofMillis(sendTimeoutMs))
+                .filter(result -> {
+                    if (result.exception() != null) {
+                        log.warn("Outbox event {} not acknowledged, will retry: {}",
+                                result.correlationMetadata(), result.exception().getMessage());
+                        return false;
+                    }
+                    return true;
+                })
+                .map(SenderResult::correlationMetadata)
+                .collectList()
+                .onErrorResume(e -> {
+                    log.warn("Outbox relay send failed, will retry: {}", e.getMessage());
+                    return Mono.just(List.of());
+                })
+                .flatMap(dispatched -> {
+                    Set<Long> acknowledged = new HashSet<>(dispatched);
+                    List<Long> released = records.stream()
+                            .map(SenderRecord::correlationMetadata)
+                            .filter(id -> !acknowledged.contains(id))
+                            .toList();
+                    return markDispatched(dispatched)
+                            .then(releaseClaims(released))
+                            .thenReturn((long) dispatched.size());
+                });
+    }
+
+    private Mono<Long> markDispatched(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return databaseClient.sql("update user_event_outbox set dispatched_at = :dispatchedAt, claimed_until = null "
+                        + "where id = any(:ids)")
+                .bind("dispatchedAt", LocalDateTime.now())
+                .bind("ids", ids.toArray(Long[]::new))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private Mono<Long> releaseClaims(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return databaseClient.sql("update user_event_outbox set claimed_until = null where id = any(:ids)")
+                .bind("ids", ids.toArray(Long[]::new))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    @Scheduled(cron = "${outbox.cleanup.cron:0 0 * * * *}")
+    public Mono<Long> cleanup() {
+        return databaseClient.sql("delete from user_event_outbox where dispatched_at < :before")
+                .bind("before", LocalDateTime.now().minusHours(retentionHours))
+                .fetch()
+                .rowsUpdated()
+                .doOnNext(deleted -> log.info("Deleted {} dispatched outbox events", deleted));
+    }
+
+    private ProducerRecord<String, UserEvent> toRecord(UserEvent event) {
+        // Ключ — id пользователя: все события одного пользователя попадают в одну партицию
+        String key = event.getUserId() != null ? event.getUserId().toString() : null;
+        return new ProducerRecord<>(userEventsTopic, key, event);
+    }
+}
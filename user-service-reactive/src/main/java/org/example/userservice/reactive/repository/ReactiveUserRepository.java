@@ -0,0 +1,202 @@
+package org.example.userservice.reactive.repository;
+
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Statement;
+import lombok.RequiredArgsConstructor;
+import org.example.userservice.entity.User;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Access to the {@code users} table shared with the blocking service. Rows with {@code deleted_at} set
+ * are deleted users waiting for the purge and are skipped by every query. Ids are taken from
+ * {@code users_seq} one {@code nextval} per row: with the pooled increment of 50 each value is
+ * the upper end of a block the JPA side never hands out, so both services can insert side by side.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactiveUserRepository {
+
+    private static final String COLUMNS = "id, name, email, age, created_at, updated_at, version";
+    private static final String INSERT = "insert into users (id, name, email, age, created_at, updated_at, version) "
+            + "values (nextval('users_seq'), $1, $2, $3, $4, $4, 0) returning " + COLUMNS;
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<User> findById(Long id) {
+        return databaseClient.sql("select " + COLUMNS + " from users where id = :id and deleted_at is null")
+                .bind("id", id)
+                .map(ReactiveUserRepository::toUser)
+                .one();
+    }
+
+    public Mono<Boolean> existsById(Long id) {
+        return databaseClient.sql("select 1 from users where id = :id and deleted_at is null")
+                .bind("id", id)
+                .map(row -> Boolean.TRUE)
+                .first()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    public Mono<Boolean> existsByEmail(String email) {
+        return databaseClient.sql("select 1 from users where email = :email and deleted_at is null")
+                .bind("email", email)
+                .map(row -> Boolean.TRUE)
+                .first()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    public Flux<String> findExistingEmails(Collection<String> emails) {
+        return databaseClient.sql("select email from users where email = any(:emails) and deleted_at is null")
+                .bind("emails", emails.toArray(String[]::new))
+                .map(row -> row.get("email", String.class))
+                .all();
+    }
+
+    public Flux<User> findByIdGreaterThanOrderByIdAsc(long id, int limit) {
+        return databaseClient.sql("select " + COLUMNS + " from users where id > :id and deleted_at is null "
+                        + "order by id asc limit :limit")
+                .bind("id", id)
+                .bind("limit", limit)
+                .map(ReactiveUserRepository::toUser)
+                .all();
+    }
+
+    public Flux<User> findAllByOrderByCreatedAtAscIdAsc(int limit) {
+        return databaseClient.sql("select " + COLUMNS + " from users where deleted_at is null "
+                        + "order by created_at asc, id asc limit :limit")
+                .bind("limit", limit)
+                .map(ReactiveUserRepository::toUser)
+                .all();
+    }
+
+    public Flux<User> findPageAfterCreatedAt(LocalDateTime createdAt, Long id, int limit) {
+        return databaseClient.sql("select " + COLUMNS + " from users where (created_at, id) > (:createdAt, :id) "
+                        + "and deleted_at is null order by created_at asc, id asc limit :limit")
+                .bind("createdAt", createdAt)
+                .bind("id", id)
+                .bind("limit", limit)
+                .map(ReactiveUserRepository::toUser)
+                .all();
+    }
+
+    public Mono<LocalDateTime> findCreatedAtById(Long id) {
+        return databaseClient.sql("select created_at from users where id = :id and deleted_at is null")
+                .bind("id", id)
+                .map(row -> row.get("created_at", LocalDateTime.class))
+                .one();
+    }
+
+    /**
+     * Streams the whole table with backpressure; rows are fetched from the cursor as the client reads them.
+     */
+    public Flux<User> streamAllOrderedById() {
+        return databaseClient.sql("select " + COLUMNS + " from users where deleted_at is null order by id asc")
+                .filter(statement -> statement.fetchSize(500))
+                .map(ReactiveUserRepository::toUser)
+                .all();
+    }
+
+    public Mono<User> insert(User user) {
+        return insertAll(List.of(user)).single();
+    }
+
+    /**
+     * Inserts the users as one batched statement and returns the saved rows in the given order.
+     */
+    public Flux<User> insertAll(List<User> users) {
+        if (users.isEmpty()) {
+            return Flux.empty();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return databaseClient.inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(INSERT);
+            for (int i = 0; i < users.size(); i++) {
+                if (i > 0) {
+                    statement.add();
+                }
+                User user = users.get(i);
+                statement.bind("$1", user.getName())
+                        .bind("$2", user.getEmail())
+                        .bind("$4", now);
+                if (user.getAge() != null) {
+                    statement.bind("$3", user.getAge());
+                } else {
+                    statement.bindNull("$3", Integer.class);
+                }
+            }
+            return Flux.from(statement.execute())
+                    .concatMap(result -> result.map(ReactiveUserRepository::toUser));
+        });
+    }
+
+    public Mono<User> update(Long id, String name, String email, Integer age) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("update users set version = version + 1, "
+                        + "name = :name, email = :email, age = :age, updated_at = :updatedAt "
+                        + "where id = :id and deleted_at is null returning " + COLUMNS)
+                .bind("id", id)
+                .bind("name", name)
+                .bind("email", email)
+                .bind("updatedAt", LocalDateTime.now());
+        spec = age != null ? spec.bind("age", age) : spec.bindNull("age", Integer.class);
+        return spec.map(ReactiveUserRepository::toUser).one();
+    }
+
+    public Mono<User> updateIfVersionMatches(Long id, long version, String name, String email, Integer age) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (name != null) {
+            changes.put("name", name);
+        }
+        if (email != null) {
+            changes.put("email", email);
+        }
+        if (age != null) {
+            changes.put("age", age);
+        }
+        changes.put("updated_at", LocalDateTime.now());
+
+        StringBuilder sql = new StringBuilder("update users set version = version + 1");
+        changes.keySet().forEach(column -> sql.append(", ").append(column).append(" = :").append(column));
+        sql.append(" where id = :id and version = :version and deleted_at is null returning ").append(COLUMNS);
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+                .bind("id", id)
+                .bind("version", version);
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            spec = spec.bind(change.getKey(), change.getValue());
+        }
+        return spec.map(ReactiveUserRepository::toUser).one();
+    }
+
+    /**
+     * Marks the user as deleted; the row itself is removed later by the purge job of the blocking service.
+     */
+    public Mono<User> softDeleteById(Long id) {
+        return databaseClient.sql("update users set deleted_at = :deletedAt "
+                        + "where id = :id and deleted_at is null returning " + COLUMNS)
+                .bind("deletedAt", LocalDateTime.now())
+                .bind("id", id)
+                .map(ReactiveUserRepository::toUser)
+                .one();
+    }
+
+    private static User toUser(Readable row) {
+        return User.builder()
+                .id(row.get("id", Long.class))
+                .name(row.get("name", String.class))
+                .email(row.get("email", String.class))
+                .age(row.get("age", Integer.class))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .updatedAt(row.get("updated_at", LocalDateTime.class))
+                .version(row.get("version", Long.class))
+                .build();
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.userservice.reactive.service;
+
+import org.example.userservice.dto.UserBatchResponse;
+import org.example.userservice.dto.UserPage;
+import org.example.userservice.dto.UserPatchRequest;
+import org.example.userservice.dto.UserRequest;
+import org.example.userservice.dto.UserResponse;
+import org.example.userservice.dto.UserSortField;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface ReactiveUserService {
+
+    Mono<UserResponse> createUser(UserRequest userRequest);
+
+    Mono<UserBatchResponse> createUsers(List<UserRequest> userRequests);
+
+    Mono<UserResponse> getUserById(Long id);
+
+    Mono<UserPage> getAllUsers(Long after, int limit, UserSortField sort);
+
+    Flux<UserResponse> exportUsers();
+
+    Mono<UserResponse> updateUser(Long id, UserRequest userRequest);
+
+    Mono<UserResponse> patchUser(Long id, UserPatchRequest patchRequest);
+
+    Mono<Void> deleteUser(Long id);
+}
@@ -0,0 +1,284 @@
+package org.example.userservice.reactive.service.impl;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.example.userservice.dto.UserBatchResponse;
+import org.example.userservice.dto.UserBatchResult;
+import org.example.userservice.dto.UserPage;
+import org.example.userservice.dto.UserPatchRequest;
+import org.example.userservice.dto.UserRequest;
+import org.example.userservice.dto.UserResponse;
+import org.example.userservice.dto.UserSortField;
+import org.example.userservice.entity.User;
+import org.example.userservice.event.UserEvent;
+import org.example.userservice.exception.BatchSizeExceededException;
+import org.example.userservice.exception.DuplicateEmailException;
+import org.example.userservice.exception.ResourceNotFoundException;
+import org.example.userservice.exception.VersionConflictException;
+import org.example.userservice.mapper.UserMapper;
+import org.example.userservice.reactive.outbox.ReactiveUserEventOutbox;
+import org.example.userservice.reactive.repository.ReactiveUserRepository;
+import org.example.userservice.reactive.service.ReactiveUserService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ReactiveUserServiceImpl implements ReactiveUserService {
+
+    private static final int EMAIL_LOOKUP_CHUNK = 1000;
+
+    private final ReactiveUserRepository userRepository;
+    private final UserMapper userMapper;
+    private final ReactiveUserEventOutbox userEventOutbox;
+    private final Validator validator;
+    private final TransactionalOperator transactionalOperator;
+
+    @Value("${users.page.max-size:100}")
+    private int maxPageSize = 100;
+
+    @Value("${users.batch.max-size:10000}")
+    private int maxBatchSize = 10000;
+
+    @Value("${users.batch.insert-size:50}")
+    private int insertBatchSize = 50;
+
+    @Override
+    public Mono<UserResponse> createUser(UserRequest userRequest) {
+        // Без предварительного existsByEmail: занятую почту отклоняет уникальный индекс
+        return userRepository.insert(userMapper.toEntity(userRequest))
+                .onErrorMap(DuplicateKeyException.class, e -> duplicateEmail(userRequest.getEmail()))
+                .flatMap(savedUser -> userEventOutbox.enqueue(event(UserEvent.EventType.USER_CREATED, savedUser))
+                        .thenReturn(savedUser))
+                .map(userMapper::toResponse);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Mono<UserBatchResponse> createUsers(List<UserRequest> userRequests) {
+        if (userRequests.size() > maxBatchSize) {
+            return Mono.error(new BatchSizeExceededException("Слишком много пользователей в запросе: "
+                    + userRequests.size() + ", максимум " + maxBatchSize));
+        }
+
+        UserBatchResult[] results = new UserBatchResult[userRequests.size()];
+        Map<String, Integer> candidates = new LinkedHashMap<>();
+
+        for (int i = 0; i < userRequests.size(); i++) {
+            UserRequest userRequest = userRequests.get(i);
+            Set<ConstraintViolation<UserRequest>> violations = validator.validate(userRequest);
+            if (!violations.isEmpty()) {
+                Map<String, String> errors = new HashMap<>();
+                violations.forEach(violation ->
+                        errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+                results[i] = UserBatchResult.builder()
+                        .index(i)
+                        .status(UserBatchResult.Status.INVALID)
+                        .errors(errors)
+                        .build();
+            } else if (candidates.putIfAbsent(userRequest.getEmail(), i) != null) {
+                results[i] = conflict(i, "Почта повторяется в запросе: " + userRequest.getEmail());
+            }
+        }
+
+        List<String> emails = new ArrayList<>(candidates.keySet());
+        return Flux.fromIterable(chunks(emails, EMAIL_LOOKUP_CHUNK))
+                .concatMap(userRepository::findExistingEmails)
+                .collect(HashSet<String>::new, Set::add)
+                .flatMap(existingEmails -> {
+                    List<Integer> pendingIndexes = new ArrayList<>();
+                    for (Map.Entry<String, Integer> candidate : candidates.entrySet()) {
+                        int index = candidate.getValue();
+                        if (existingEmails.contains(candidate.getKey())) {
+                            results[index] = conflict(index, "Почта уже используется: " + candidate.getKey());
+                        } else {
+                            pendingIndexes.add(index);
+                        }
+                    }
+
+                    return Flux.fromIterable(chunks(pendingIndexes, insertBatchSize))
+                            .concatMap(indexes -> saveBatch(indexes, userRequests, results))
+                            .then(Mono.fromSupplier(() -> batchResponse(results)));
+                });
+    }
+
+    /**
+     * Saves one chunk in its own transaction. If a concurrent request took one of the emails
+     * after the duplicate check, the unique index rejects the whole chunk; it is then retried
+     * user by user, so only the taken emails are reported as CONFLICT.
+     */
+    private Mono<Void> saveBatch(List<Integer> indexes, List<UserRequest> userRequests, UserBatchResult[] results) {
+        return insertUsers(indexes, userRequests, results)
+                .onErrorResume(DuplicateKeyException.class, e -> Flux.fromIterable(indexes)
+                        .concatMap(index -> insertUsers(List.of(index), userRequests, results)
+                                .onErrorResume(DuplicateKeyException.class, single -> {
+                                    results[index] = conflict(index,
+                                            "Почта уже используется: " + userRequests.get(index).getEmail());
+                                    return Mono.empty();
+                                }))
+                        .then());
+    }
+
+    private Mono<Void> insertUsers(List<Integer> indexes, List<UserRequest> userRequests, UserBatchResult[] results) {
+        List<User> users = indexes.stream()
+                .map(index -> userMapper.toEntity(userRequests.get(index)))
+                .toList();
+
+        return userRepository.insertAll(users)
+                .collectList()
+                .flatMap(savedUsers -> userEventOutbox.enqueueAll(savedUsers.stream()
+                                .map(savedUser -> event(UserEvent.EventType.USER_CREATED, savedUser))
+                                .toList())
+                        .thenReturn(savedUsers))
+                .as(transactionalOperator::transactional)
+                .doOnNext(savedUsers -> {
+                    for (int i = 0; i < savedUsers.size(); i++) {
+                        int index = indexes.get(i);
+                        results[index] = UserBatchResult.builder()
+                                .index(index)
+                                .status(UserBatchResult.Status.CREATED)
+                                .user(userMapper.toResponse(savedUsers.get(i)))
+                                .build();
+                    }
+                })
+                .then();
+    }
+
+    private static UserBatchResponse batchResponse(UserBatchResult[] results) {
+        List<UserBatchResult> resultList = Arrays.asList(results);
+        int created = (int) resultList.stream()
+                .filter(result -> result.getStatus() == UserBatchResult.Status.CREATED)
+                .count();
+        return UserBatchResponse.builder()
+                .created(created)
+                .failed(resultList.size() - created)
+                .results(resultList)
+                .build();
+    }
+
+    private UserBatchResult conflict(int index, String message) {
+        return UserBatchResult.builder()
+                .index(index)
+                .status(UserBatchResult.Status.CONFLICT)
+                .message(message)
+                .build();
+    }
+
+    private static <T> List<List<T>> chunks(List<T> items, int size) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += size) {
+            chunks.add(items.subList(from, Math.min(from + size, items.size())));
+        }
+        return chunks;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Mono<UserResponse> getUserById(Long id) {
+        return userRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> notFound(id)))
+                .map(userMapper::toResponse);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Mono<UserPage> getAllUsers(Long after, int limit, UserSortField sort) {
+        int pageSize = Math.min(Math.max(limit, 1), maxPageSize);
+        // Берём на одну запись больше, чтобы узнать, есть ли следующая страница, без count-запроса
+        int seekLimit = pageSize + 1;
+
+        Flux<User> users = switch (sort) {
+            case ID -> userRepository.findByIdGreaterThanOrderByIdAsc(after == null ? 0L : after, seekLimit);
+            case CREATED_AT -> after == null
+                    ? userRepository.findAllByOrderByCreatedAtAscIdAsc(seekLimit)
+                    : userRepository.findCreatedAtById(after)
+                            .switchIfEmpty(Mono.error(() -> notFound(after)))
+                            .flatMapMany(createdAt -> userRepository.findPageAfterCreatedAt(createdAt, after, seekLimit));
+        };
+
+        return users.map(userMapper::toResponse)
+                .collectList()
+                .map(page -> {
+                    boolean hasNext = page.size() > pageSize;
+                    List<UserResponse> content = hasNext ? page.subList(0, pageSize) : page;
+                    return UserPage.builder()
+                            .users(content)
+                            .nextCursor(hasNext ? content.get(content.size() - 1).getUserId() : null)
+                            .build();
+                });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Flux<UserResponse> exportUsers() {
+        return userRepository.streamAllOrderedById()
+                .map(userMapper::toResponse);
+    }
+
+    @Override
+    public Mono<UserResponse> updateUser(Long id, UserRequest userRequest) {
+        return userRepository.update(id, userRequest.getName(), userRequest.getEmail(), userRequest.getAge())
+                .onErrorMap(DuplicateKeyException.class, e -> duplicateEmail(userRequest.getEmail()))
+                .switchIfEmpty(Mono.error(() -> notFound(id)))
+                .flatMap(updatedUser -> userEventOutbox.enqueue(event(UserEvent.EventType.USER_UPDATED, updatedUser))
+                        .thenReturn(updatedUser))
+                .map(userMapper::toResponse);
+    }
+
+    @Override
+    public Mono<UserResponse> patchUser(Long id, UserPatchRequest patchRequest) {
+        return userRepository.updateIfVersionMatches(id, patchRequest.getVersion(),
+                        patchRequest.getName(), patchRequest.getEmail(), patchRequest.getAge())
+                .onErrorMap(DuplicateKeyException.class, e -> duplicateEmail(patchRequest.getEmail()))
+                .switchIfEmpty(Mono.defer(() -> userRepository.existsById(id)
+                        .flatMap(exists -> Mono.<User>error(exists
+                                ? new VersionConflictException("Пользователь " + id + " уже изменён, версия "
+                                        + patchRequest.getVersion() + " устарела")
+                                : notFound(id)))))
+                .flatMap(patchedUser -> userEventOutbox.enqueue(event(UserEvent.EventType.USER_UPDATED, patchedUser))
+                        .thenReturn(patchedUser))
+                .map(userMapper::toResponse);
+    }
+
+    @Override
+    public Mono<Void> deleteUser(Long id) {
+        // UPDATE ... RETURNING отдаёт удалённую строку для события без отдельного findById
+        return userRepository.softDeleteById(id)
+                .switchIfEmpty(Mono.error(() -> notFound(id)))
+                .flatMap(user -> userEventOutbox.enqueue(event(UserEvent.EventType.USER_DELETED, user)));
+    }
+
+    private static UserEvent event(UserEvent.EventType eventType, User user) {
+        return UserEvent.builder()
+                .eventType(eventType)
+                .userId(user.getId())
+                .email(user.getEmail())
+                .name(user.getName())
+                .build();
+    }
+
+    private static ResourceNotFoundException notFound(Long id) {
+        return new ResourceNotFoundException("Пользователь не найден: " + id);
+    }
+
+    private static DuplicateEmailException duplicateEmail(String email) {
+        return new DuplicateEmailException("Почта уже используется: " + email);
+    }
+}
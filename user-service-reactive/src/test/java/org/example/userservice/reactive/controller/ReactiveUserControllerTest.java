@@ -0,0 +1,231 @@
+package org.example.userservice.reactive.controller;
+
+import org.example.userservice.dto.UserPage;
+import org.example.userservice.dto.UserPatchRequest;
+import org.example.userservice.dto.UserRequest;
+import org.example.userservice.dto.UserResponse;
+import org.example.userservice.dto.UserSortField;
+import org.example.userservice.exception.DuplicateEmailException;
+import org.example.userservice.exception.ResourceNotFoundException;
+import org.example.userservice.exception.VersionConflictException;
+import org.example.userservice.reactive.controller.export.ReactiveUserNdjsonWriter;
+import org.example.userservice.reactive.controller.hateoas.ReactiveUserControllerHateoas;
+import org.example.userservice.reactive.service.ReactiveUserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@WebFluxTest(ReactiveUserController.class)
+@Import({ReactiveUserControllerHateoas.class, ReactiveUserNdjsonWriter.class})
+class ReactiveUserControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveUserService userService;
+
+    private UserRequest validUserRequest;
+    private UserResponse userResponse;
+
+    @BeforeEach
+    void setUp() {
+        validUserRequest = UserRequest.builder()
+                .name("John Doe")
+                .email("john@example.com")
+                .age(30)
+                .build();
+
+        userResponse = UserResponse.builder()
+                .userId(1L)
+                .name("John Doe")
+                .email("john@example.com")
+                .age(30)
+                .createdAt(LocalDateTime.of(2024, 1, 1, 12, 0))
+                .updatedAt(LocalDateTime.of(2024, 1, 2, 12, 0))
+                .version(3L)
+                .build();
+    }
+
+    @Test
+    void createUser_ValidRequest_ReturnsCreatedWithLinks() {
+        when(userService.createUser(any(UserRequest.class))).thenReturn(Mono.just(userResponse));
+
+        webTestClient.post().uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaTypes.HAL_JSON)
+                .bodyValue(validUserRequest)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1)
+                .jsonPath("$._links.self.href").isEqualTo("/users/1")
+                .jsonPath("$._links.update.href").isEqualTo("/users/1")
+                .jsonPath("$._links.delete.href").isEqualTo("/users/1")
+                .jsonPath("$._links.users.href").isEqualTo("/users");
+    }
+
+    @Test
+    void createUser_InvalidRequest_ReturnsValidationErrors() {
+        UserRequest invalidRequest = UserRequest.builder()
+                .name("")
+                .email("not-an-email")
+                .age(30)
+                .build();
+
+        webTestClient.post().uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(invalidRequest)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(400)
+                .jsonPath("$.message").isEqualTo("Validation failed")
+                .jsonPath("$.errors.email").exists();
+
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void createUser_DuplicateEmail_ReturnsConflict() {
+        when(userService.createUser(any(UserRequest.class)))
+                .thenReturn(Mono.error(new DuplicateEmailException("Почта уже используется: john@example.com")));
+
+        webTestClient.post().uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(validUserRequest)
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Почта уже используется: john@example.com");
+    }
+
+    @Test
+    void getUserById_SetsETagAndLastModified() {
+        when(userService.getUserById(1L)).thenReturn(Mono.just(userResponse));
+
+        webTestClient.get().uri("/users/1")
+                .accept(MediaTypes.HAL_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"3\"")
+                .expectHeader().exists("Last-Modified")
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("John Doe");
+    }
+
+    @Test
+    void getUserById_MatchingIfNoneMatch_ReturnsNotModified() {
+        when(userService.getUserById(1L)).thenReturn(Mono.just(userResponse));
+
+        webTestClient.get().uri("/users/1")
+                .header("If-None-Match", "\"3\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void getUserById_NotFound_ReturnsNotFound() {
+        when(userService.getUserById(99L))
+                .thenReturn(Mono.error(new ResourceNotFoundException("Пользователь не найден: 99")));
+
+        webTestClient.get().uri("/users/99")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404)
+                .jsonPath("$.message").isEqualTo("Пользователь не найден: 99");
+    }
+
+    @Test
+    void getAllUsers_ReturnsPageWithNextLink() {
+        UserPage page = UserPage.builder()
+                .users(List.of(userResponse))
+                .nextCursor(1L)
+                .build();
+        when(userService.getAllUsers(null, 1, UserSortField.CREATED_AT)).thenReturn(Mono.just(page));
+
+        webTestClient.get().uri("/users?limit=1&sort=createdAt")
+                .accept(MediaTypes.HAL_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$._embedded.users[0]._links.self.href").isEqualTo("/users/1")
+                .jsonPath("$._links.self.href").isEqualTo("/users?limit=1&sort=createdAt")
+                .jsonPath("$._links.next.href").isEqualTo("/users?after=1&limit=1&sort=createdAt");
+    }
+
+    @Test
+    void getAllUsers_UnknownSort_ReturnsBadRequest() {
+        webTestClient.get().uri("/users?sort=name")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Некорректное значение параметра: sort");
+
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void exportUsers_StreamsNdjsonWithoutLinks() {
+        UserResponse second = UserResponse.builder().userId(2L).name("Jane").email("jane@example.com").build();
+        when(userService.exportUsers()).thenReturn(Flux.just(userResponse, second));
+
+        String body = webTestClient.get().uri("/users/export")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(body);
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"id\":1"));
+        assertTrue(lines[1].contains("\"id\":2"));
+        assertFalse(body.contains("links"));
+    }
+
+    @Test
+    void patchUser_StaleVersion_ReturnsConflict() {
+        UserPatchRequest patchRequest = UserPatchRequest.builder().name("Jane").version(2L).build();
+        when(userService.patchUser(eq(1L), any(UserPatchRequest.class)))
+                .thenReturn(Mono.error(new VersionConflictException("Пользователь 1 уже изменён, версия 2 устарела")));
+
+        webTestClient.patch().uri("/users/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(patchRequest)
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Пользователь 1 уже изменён, версия 2 устарела");
+    }
+
+    @Test
+    void deleteUser_ReturnsNoContent() {
+        when(userService.deleteUser(1L)).thenReturn(Mono.empty());
+
+        webTestClient.delete().uri("/users/1")
+                .exchange()
+                .expectStatus().isNoContent();
+
+        verify(userService).deleteUser(1L);
+    }
+}
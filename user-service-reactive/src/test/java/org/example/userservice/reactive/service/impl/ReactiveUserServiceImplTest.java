@@ -0,0 +1,266 @@
+package org.example.userservice.reactive.service.impl;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.example.userservice.dto.UserBatchResult;
+import org.example.userservice.dto.UserPatchRequest;
+import org.example.userservice.dto.UserRequest;
+import org.example.userservice.dto.UserSortField;
+import org.example.userservice.entity.User;
+import org.example.userservice.event.UserEvent;
+import org.example.userservice.exception.BatchSizeExceededException;
+import org.example.userservice.exception.DuplicateEmailException;
+import org.example.userservice.exception.ResourceNotFoundException;
+import org.example.userservice.exception.VersionConflictException;
+import org.example.userservice.mapper.UserMapper;
+import org.example.userservice.mapper.UserMapperImpl;
+import org.example.userservice.reactive.outbox.ReactiveUserEventOutbox;
+import org.example.userservice.reactive.repository.ReactiveUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveUserServiceImplTest {
+
+    @Mock
+    private ReactiveUserRepository userRepository;
+
+    @Spy
+    private UserMapper userMapper = new UserMapperImpl();
+
+    @Mock
+    private ReactiveUserEventOutbox userEventOutbox;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @InjectMocks
+    private ReactiveUserServiceImpl userService;
+
+    private UserRequest userRequest;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(userEventOutbox.enqueue(any())).thenReturn(Mono.empty());
+        lenient().when(userEventOutbox.enqueueAll(any())).thenReturn(Mono.empty());
+        lenient().when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        userRequest = UserRequest.builder()
+                .name("John Doe")
+                .email("john@example.com")
+                .age(30)
+                .build();
+
+        user = User.builder()
+                .id(1L)
+                .name("John Doe")
+                .email("john@example.com")
+                .age(30)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .version(0L)
+                .build();
+    }
+
+    @Test
+    void createUser_Success_EnqueuesCreatedEvent() {
+        when(userRepository.insert(any(User.class))).thenReturn(Mono.just(user));
+
+        StepVerifier.create(userService.createUser(userRequest))
+                .assertNext(response -> {
+                    assertEquals(1L, response.getUserId());
+                    assertEquals("john@example.com", response.getEmail());
+                })
+                .verifyComplete();
+
+        ArgumentCaptor<UserEvent> event = ArgumentCaptor.forClass(UserEvent.class);
+        verify(userEventOutbox).enqueue(event.capture());
+        assertEquals(UserEvent.EventType.USER_CREATED, event.getValue().getEventType());
+        assertEquals(1L, event.getValue().getUserId());
+    }
+
+    @Test
+    void createUser_UniqueConstraintViolated_ThrowsDuplicateEmail() {
+        when(userRepository.insert(any(User.class))).thenReturn(Mono.error(new DuplicateKeyException("users_email_key")));
+
+        StepVerifier.create(userService.createUser(userRequest))
+                .expectError(DuplicateEmailException.class)
+                .verify();
+
+        verify(userEventOutbox, never()).enqueue(any());
+    }
+
+    @Test
+    void createUsers_ReportsCreatedConflictAndInvalidPerItem() {
+        UserRequest taken = UserRequest.builder().name("Taken").email("taken@example.com").age(20).build();
+        UserRequest invalid = UserRequest.builder().name("").email("not-an-email").age(20).build();
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Flux.just("taken@example.com"));
+        when(userRepository.insertAll(anyList())).thenReturn(Flux.just(user));
+
+        StepVerifier.create(userService.createUsers(List.of(userRequest, taken, invalid, userRequest)))
+                .assertNext(response -> {
+                    assertEquals(1, response.getCreated());
+                    assertEquals(3, response.getFailed());
+                    assertEquals(UserBatchResult.Status.CREATED, response.getResults().get(0).getStatus());
+                    assertEquals(UserBatchResult.Status.CONFLICT, response.getResults().get(1).getStatus());
+                    assertEquals(UserBatchResult.Status.INVALID, response.getResults().get(2).getStatus());
+                    assertEquals(UserBatchResult.Status.CONFLICT, response.getResults().get(3).getStatus());
+                })
+                .verifyComplete();
+
+        verify(userEventOutbox).enqueueAll(argThat(events -> events.size() == 1));
+    }
+
+    @Test
+    void createUsers_ChunkRejectedByUniqueIndex_RetriesUserByUser() {
+        // Почту заняли между проверкой и вставкой: отклонена вся пачка, повтор по одному
+        UserRequest raced = UserRequest.builder().name("Raced").email("raced@example.com").age(20).build();
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Flux.empty());
+        when(userRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            if (users.stream().anyMatch(u -> u.getEmail().equals("raced@example.com"))) {
+                return Flux.error(new DuplicateKeyException("users_email_active_key"));
+            }
+            return Flux.just(user);
+        });
+
+        StepVerifier.create(userService.createUsers(List.of(userRequest, raced)))
+                .assertNext(response -> {
+                    assertEquals(1, response.getCreated());
+                    assertEquals(1, response.getFailed());
+                    assertEquals(UserBatchResult.Status.CREATED, response.getResults().get(0).getStatus());
+                    assertEquals(UserBatchResult.Status.CONFLICT, response.getResults().get(1).getStatus());
+                    assertEquals("Почта уже используется: raced@example.com", response.getResults().get(1).getMessage());
+                })
+                .verifyComplete();
+
+        verify(userRepository, times(3)).insertAll(anyList());
+        verify(transactionalOperator, times(3)).transactional(any(Mono.class));
+        verify(userEventOutbox).enqueueAll(argThat(events -> events.size() == 1));
+    }
+
+    @Test
+    void createUsers_TooManyUsers_ThrowsException() {
+        List<UserRequest> requests = Collections.nCopies(10001, userRequest);
+
+        StepVerifier.create(userService.createUsers(requests))
+                .expectError(BatchSizeExceededException.class)
+                .verify();
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void getUserById_NotFound_ThrowsException() {
+        when(userRepository.findById(99L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(userService.getUserById(99L))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void getAllUsers_MoreThanLimit_ReturnsNextCursor() {
+        User second = User.builder().id(2L).name("Jane").email("jane@example.com").build();
+        User third = User.builder().id(3L).name("Jack").email("jack@example.com").build();
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(0L, 3)).thenReturn(Flux.just(user, second, third));
+
+        StepVerifier.create(userService.getAllUsers(null, 2, UserSortField.ID))
+                .assertNext(page -> {
+                    assertEquals(2, page.getUsers().size());
+                    assertEquals(2L, page.getNextCursor());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getAllUsers_UnknownCursor_ThrowsException() {
+        when(userRepository.findCreatedAtById(42L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(userService.getAllUsers(42L, 20, UserSortField.CREATED_AT))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+
+        verify(userRepository, never()).findPageAfterCreatedAt(any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void updateUser_NotFound_ThrowsException() {
+        when(userRepository.update(eq(99L), anyString(), anyString(), anyInt())).thenReturn(Mono.empty());
+
+        StepVerifier.create(userService.updateUser(99L, userRequest))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+
+        verify(userEventOutbox, never()).enqueue(any());
+    }
+
+    @Test
+    void patchUser_StaleVersion_ThrowsConflict() {
+        UserPatchRequest patchRequest = UserPatchRequest.builder().name("Jane").version(3L).build();
+        when(userRepository.updateIfVersionMatches(1L, 3L, "Jane", null, null)).thenReturn(Mono.empty());
+        when(userRepository.existsById(1L)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(userService.patchUser(1L, patchRequest))
+                .expectError(VersionConflictException.class)
+                .verify();
+    }
+
+    @Test
+    void patchUser_NotFound_ThrowsException() {
+        UserPatchRequest patchRequest = UserPatchRequest.builder().name("Jane").version(3L).build();
+        when(userRepository.updateIfVersionMatches(99L, 3L, "Jane", null, null)).thenReturn(Mono.empty());
+        when(userRepository.existsById(99L)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(userService.patchUser(99L, patchRequest))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void deleteUser_Success_EnqueuesDeletedEventFromReturnedRow() {
+        when(userRepository.softDeleteById(1L)).thenReturn(Mono.just(user));
+
+        StepVerifier.create(userService.deleteUser(1L))
+                .verifyComplete();
+
+        verify(userEventOutbox).enqueue(argThat(event ->
+                event.getEventType() == UserEvent.EventType.USER_DELETED
+                        && "john@example.com".equals(event.getEmail())));
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void deleteUser_NotFound_ThrowsException() {
+        when(userRepository.softDeleteById(99L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(userService.deleteUser(99L))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+
+        verify(userEventOutbox, never()).enqueue(any());
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.userservice.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.userservice.dto.UserResponse;
+import org.example.userservice.singleflight.SingleFlight;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    public static final String USERS_CACHE = "users";
+
+    /**
+     * Caffeine cache manager configured from {@code spring.cache.*}. Evictions issued inside
+     * a transaction are applied only after it commits, so a rolled-back update never drops
+     * a still valid entry and a concurrent reader cannot re-cache the old row before commit.
+     * <p>
+     * A synchronized load ({@code Cache.get(key, loader)}) runs inside {@code ConcurrentHashMap.compute},
+     * i.e. under a monitor, which would pin a virtual thread to its carrier for the whole JDBC
+     * call. With virtual threads the caches therefore run in async mode: the monitor is held
+     * only to register a future, the load runs on a virtual thread and callers park on the future.
+     * The loader then runs away from the caller's thread, so it must not rely on the caller's
+     * transaction or thread-locals: loaders open their own transaction and carry the
+     * {@code ReadYourWritesContext} pin with them.
+     */
+    @Bean
+    public CacheManager cacheManager(CacheProperties cacheProperties, Environment environment) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        String specification = cacheProperties.getCaffeine().getSpec();
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor cacheLoader = new SimpleAsyncTaskExecutor("cache-loader-");
+            cacheLoader.setVirtualThreads(true);
+            Caffeine<Object, Object> caffeine = StringUtils.hasText(specification)
+                    ? Caffeine.from(specification)
+                    : Caffeine.newBuilder();
+            cacheManager.setCaffeine(caffeine.executor(cacheLoader));
+            cacheManager.setAsyncCacheMode(true);
+        } else if (StringUtils.hasText(specification)) {
+            cacheManager.setCacheSpecification(specification);
+        }
+        cacheManager.setCacheNames(cacheProperties.getCacheNames().isEmpty()
+                ? List.of(USERS_CACHE)
+                : cacheProperties.getCacheNames());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    /**
+     * Coalesces concurrent cache misses for the same user into one load. Unlike the synchronized
+     * cache load alone, it also shares "not found" and failures, which are never cached, so a burst
+     * of requests for a missing or unreachable user costs one query instead of one per request.
+     */
+    @Bean
+    public SingleFlight<Long, UserResponse> userLoads(
+            MeterRegistry meterRegistry,
+            @Value("${users.single-flight.timeout-ms:5000}") long timeoutMs) {
+        return new SingleFlight<>("getUserById", Duration.ofMillis(timeoutMs), meterRegistry);
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.userservice.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    @Value("${kafka.topic.user-events}")
+    private String userEventsTopic;
+
+    @Value("${kafka.topic.user-events.partitions:6}")
+    private int partitions;
+
+    @Value("${kafka.topic.user-events.replication-factor:1}")
+    private short replicationFactor;
+
+    /**
+     * Events are keyed by user id, so the partition count is the upper bound on consumer
+     * parallelism. KafkaAdmin only ever adds partitions; raising the count re-maps keys,
+     * so in-flight events of a user may briefly be consumed out of order.
+     */
+    @Bean
+    public NewTopic userEventsTopic() {
+        return TopicBuilder.name(userEventsTopic)
+                .partitions(partitions)
+                .replicas(replicationFactor)
+                .build();
+    }
+}
\ No newline at end of file
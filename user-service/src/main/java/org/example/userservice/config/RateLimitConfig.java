@@ -0,0 +1,63 @@
+package org.example.userservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.userservice.ratelimit.RateLimitEndpoint;
+import org.example.userservice.ratelimit.RateLimitFilter;
+import org.example.userservice.ratelimit.RateLimitSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Configuration
+@ConditionalOnProperty(name = "users.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${users.rate-limit.read.burst:200}") int readBurst,
+            @Value("${users.rate-limit.read.per-second:100}") double readPerSecond,
+            @Value("${users.rate-limit.write.burst:50}") int writeBurst,
+            @Value("${users.rate-limit.write.per-second:20}") double writePerSecond,
+            @Value("${users.rate-limit.max-concurrent-requests:40}") int maxConcurrentRequests,
+            @Value("${users.rate-limit.api-key-header:X-API-Key}") String apiKeyHeader,
+            @Value("${users.rate-limit.api-keys:}") String apiKeys,
+            @Value("${users.rate-limit.max-clients:100000}") long maxClients,
+            @Value("${users.rate-limit.idle-client-expiry:10m}") Duration idleClientExpiry) {
+        RateLimitSettings settings = new RateLimitSettings(
+                readBurst, readPerSecond, writeBurst, writePerSecond, maxConcurrentRequests);
+        Set<String> knownApiKeys = StringUtils.commaDelimitedListToSet(apiKeys).stream()
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .collect(Collectors.toSet());
+        return new RateLimitFilter(settings, apiKeyHeader, knownApiKeys, maxClients, idleClientExpiry,
+                objectMapper, meterRegistry);
+    }
+
+    /**
+     * Runs right after the observation filter, so rejected requests still show up
+     * in {@code http.server.requests}, and before any other filter of the service.
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.addUrlPatterns("/users", "/users/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Bean
+    public RateLimitEndpoint rateLimitEndpoint(RateLimitFilter rateLimitFilter) {
+        return new RateLimitEndpoint(rateLimitFilter);
+    }
+}
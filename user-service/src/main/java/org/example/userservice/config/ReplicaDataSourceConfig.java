@@ -0,0 +1,100 @@
+package org.example.userservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.userservice.datasource.ReadYourWritesFilter;
+import org.example.userservice.datasource.ReplicaRoutingDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the single {@code spring.datasource} pool with a primary pool plus one pool per
+ * {@code users.datasource.replica.urls} entry; read-only transactions go to the replicas.
+ * Without replica URLs the auto-configured data source is used as before.
+ */
+@Configuration
+@ConditionalOnProperty("users.datasource.replica.urls")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            MeterRegistry meterRegistry,
+            @Value("${users.datasource.replica.urls}") List<String> urls,
+            @Value("${users.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${users.datasource.replica.password:${spring.datasource.password:}}") String password,
+            @Value("${users.datasource.replica.maximum-pool-size:20}") int maximumPoolSize,
+            @Value("${users.datasource.replica.connection-timeout-ms:1000}") long connectionTimeoutMs,
+            @Value("${users.datasource.replica.max-lag-ms:1000}") long maxLagMs) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(urls.get(i))
+                    .username(username)
+                    .password(password)
+                    .build();
+            replica.setPoolName("replica-" + i);
+            replica.setMaximumPoolSize(maximumPoolSize);
+            // Недоступная реплика должна быстро уступать primary, а не держать запрос
+            replica.setConnectionTimeout(connectionTimeoutMs);
+            replica.setReadOnly(true);
+            // Пулы реплик не бины, поэтому hikaricp.* для них Boot не регистрирует
+            replica.setMetricRegistry(meterRegistry);
+            replicas.put(replica.getPoolName(), replica);
+        }
+
+        ReplicaRoutingDataSource routingDataSource =
+                new ReplicaRoutingDataSource(primaryDataSource, replicas, Duration.ofMillis(maxLagMs));
+        Gauge.builder("users.datasource.replicas.healthy", routingDataSource, ReplicaRoutingDataSource::healthyReplicaCount)
+                .description("Replicas currently serving read-only transactions")
+                .register(meterRegistry);
+        return routingDataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+        // Значения по умолчанию Hikari: прокси не нужно брать соединение, чтобы их узнать
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return dataSource;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "users.datasource.read-your-writes.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${users.datasource.read-your-writes.window-ms:2000}") long windowMs) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(windowMs));
+        registration.addUrlPatterns("/users", "/users/*");
+        return registration;
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.userservice.config;
+
+import org.example.userservice.dto.UserSortField;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverter(String.class, UserSortField.class, UserSortField::fromParam);
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.userservice.consumer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.userservice.config.CacheConfig;
+import org.example.userservice.emailfilter.EmailExistenceFilter;
+import org.example.userservice.event.UserEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the local user cache coherent across replicas: a write handled by any replica
+ * publishes a user event, and every replica evicts the matching entry when it sees it.
+ * Created and updated emails are also added to the local {@link EmailExistenceFilter}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserCacheInvalidationListener {
+
+    private final CacheManager cacheManager;
+    private final EmailExistenceFilter emailExistenceFilter;
+
+    @KafkaListener(topics = "${kafka.topic.user-events}", groupId = "${kafka.cache-invalidation.group-id}")
+    public void onUserEvent(UserEvent event) {
+        if (event == null || event.getUserId() == null) {
+            return;
+        }
+
+        // Адрес, занятый на другой реплике, иначе считался бы здесь свободным до перезапуска
+        if (event.getEmail() != null && event.getEventType() != UserEvent.EventType.USER_DELETED) {
+            emailExistenceFilter.add(event.getEmail());
+        }
+
+        Cache cache = cacheManager.getCache(CacheConfig.USERS_CACHE);
+        if (cache != null) {
+            cache.evict(event.getUserId());
+            log.debug("Evicted user {} from cache after {}", event.getUserId(), event.getEventType());
+        }
+    }
+}
\ No newline at end of file
@@ -9,21 +9,30 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.example.userservice.controller.export.UserNdjsonWriter;
 import org.example.userservice.controller.hateoas.UserControllerHateoas;
+import org.example.userservice.dto.UserBatchResponse;
+import org.example.userservice.dto.UserBulkDeleteResponse;
+import org.example.userservice.dto.UserMultiGetResponse;
+import org.example.userservice.dto.UserPage;
+import org.example.userservice.dto.UserPatchRequest;
 import org.example.userservice.dto.UserRequest;
 import org.example.userservice.dto.UserResponse;
+import org.example.userservice.dto.UserSortField;
 import org.example.userservice.service.UserService;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.ZoneId;
 import java.util.List;
-import java.util.stream.Collectors;
-
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @RestController
 @RequestMapping("/users")
@@ -33,6 +42,7 @@ public class UserController {
 
     private final UserService userService;
     private final UserControllerHateoas userControllerHateoas;
+    private final UserNdjsonWriter userNdjsonWriter;
 
     @Operation(
             summary = "Create a new user",
@@ -61,6 +71,27 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.CREATED).body(resource);
     }
 
+    @Operation(
+            summary = "Create users in bulk",
+            description = "Creates up to users.batch.max-size users in one request. "
+                    + "Each item is reported as CREATED, CONFLICT or INVALID by its index"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Batch processed",
+                    content = @Content(schema = @Schema(implementation = UserBatchResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Batch is too large"
+            )
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<UserBatchResponse> createUsers(@RequestBody List<UserRequest> userRequests) {
+        return ResponseEntity.ok(userService.createUsers(userRequests));
+    }
+
     @Operation(
             summary = "Get user by ID",
             description = "Retrieves a user by their unique identifier"
@@ -71,6 +102,10 @@ public class UserController {
                     description = "User found",
                     content = @Content(schema = @Schema(implementation = UserResponse.class))
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "User not modified since the given ETag or date"
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "User not found"
@@ -79,33 +114,134 @@ public class UserController {
     @GetMapping("/{id}")
     public ResponseEntity<EntityModel<UserResponse>> getUserById(
             @Parameter(description = "ID of the user to retrieve", required = true)
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest webRequest) {
         UserResponse response = userService.getUserById(id);
+        // Ответ берётся из кэша и уже несёт версию и updatedAt, поэтому 304 отдаём,
+        // не собирая HAL-документ. ETag и Last-Modified выставляет checkNotModified
+        if (webRequest.checkNotModified(eTag(response), lastModified(response))) {
+            return null;
+        }
         EntityModel<UserResponse> resource = userControllerHateoas.toModel(response);
         return ResponseEntity.ok(resource);
     }
 
+    private static String eTag(UserResponse user) {
+        return user.getVersion() != null ? "\"" + user.getVersion() + "\"" : null;
+    }
+
+    private static long lastModified(UserResponse user) {
+        return user.getUpdatedAt() != null
+                ? user.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : -1;
+    }
+
     @Operation(
-            summary = "Get all users",
-            description = "Retrieves a list of all users"
-    )
-    @ApiResponse(
-            responseCode = "200",
-            description = "List of users retrieved successfully"
+            summary = "Get users page",
+            description = "Retrieves a page of users using keyset pagination. "
+                    + "Pass the id from the `next` link as `after` to get the following page"
     )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Page of users retrieved successfully"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid paging parameters"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Cursor user not found"
+            )
+    })
     @GetMapping
-    public ResponseEntity<CollectionModel<EntityModel<UserResponse>>> getAllUsers() {
-        List<UserResponse> responses = userService.getAllUsers();
+    public ResponseEntity<CollectionModel<EntityModel<UserResponse>>> getAllUsers(
+            @Parameter(description = "ID of the last user of the previous page")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Maximum number of users on the page")
+            @RequestParam(defaultValue = "20") Integer limit,
+            @Parameter(description = "Sort order: id or createdAt")
+            @RequestParam(defaultValue = "id") UserSortField sort) {
+        UserPage page = userService.getAllUsers(after, limit, sort);
+        return ResponseEntity.ok(userControllerHateoas.toPageModel(page, after, limit, sort));
+    }
 
-        List<EntityModel<UserResponse>> userResources = responses.stream()
-                .map(userControllerHateoas::toModel)
-                .collect(Collectors.toList());
+    @Operation(
+            summary = "Get users by IDs",
+            description = "Retrieves up to users.multi-get.max-size users in one request, in the order "
+                    + "of `ids`. Ids of users that do not exist are listed in `missingIds`"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Users retrieved",
+                    content = @Content(schema = @Schema(implementation = UserMultiGetResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Too many or malformed ids"
+            )
+    })
+    @GetMapping(params = "ids")
+    public ResponseEntity<UserMultiGetResponse> getUsersByIds(
+            @Parameter(description = "Comma-separated IDs of the users to retrieve", required = true)
+            @RequestParam List<Long> ids) {
+        return ResponseEntity.ok(userService.getUsersByIds(ids));
+    }
 
-        CollectionModel<EntityModel<UserResponse>> collectionModel =
-                CollectionModel.of(userResources,
-                        linkTo(methodOn(UserController.class).getAllUsers()).withSelfRel());
+    @Operation(
+            summary = "Search users",
+            description = "Finds users whose name starts with or resembles `q`, prefix matches first, "
+                    + "or the user with the given `email`, ignoring case"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Matching users, best match first"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Neither q nor email given"
+            )
+    })
+    @GetMapping("/search")
+    public ResponseEntity<CollectionModel<EntityModel<UserResponse>>> searchUsers(
+            @Parameter(description = "Part of the user name")
+            @RequestParam(required = false) String q,
+            @Parameter(description = "Exact email, case-insensitive")
+            @RequestParam(required = false) String email,
+            @Parameter(description = "Maximum number of users to return")
+            @RequestParam(defaultValue = "10") Integer limit) throws MissingServletRequestParameterException {
+        List<UserResponse> users;
+        if (StringUtils.hasText(email)) {
+            users = userService.findUserByEmail(email.trim()).stream().toList();
+        } else if (StringUtils.hasText(q)) {
+            users = userService.searchUsers(q.trim(), limit);
+        } else {
+            throw new MissingServletRequestParameterException("q", "String");
+        }
+        return ResponseEntity.ok(userControllerHateoas.toSearchModel(users));
+    }
 
-        return ResponseEntity.ok(collectionModel);
+    @Operation(
+            summary = "Export all users",
+            description = "Streams every user as newline-delimited JSON, ordered by id"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Users streamed successfully"
+    )
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        StreamingResponseBody body = outputStream -> {
+            UserNdjsonWriter.Line line = userNdjsonWriter.open(outputStream);
+            userService.exportUsers(line::write);
+            outputStream.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @Operation(
@@ -136,6 +272,34 @@ public class UserController {
         return ResponseEntity.ok(resource);
     }
 
+    @Operation(
+            summary = "Partially update user",
+            description = "Changes only the given fields if the user still has the given version"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "User updated successfully"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "User not found"
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "User was modified concurrently or new email already exists"
+            )
+    })
+    @PatchMapping("/{id}")
+    public ResponseEntity<EntityModel<UserResponse>> patchUser(
+            @Parameter(description = "ID of the user to update", required = true)
+            @PathVariable Long id,
+            @Valid @RequestBody UserPatchRequest patchRequest) {
+        UserResponse response = userService.patchUser(id, patchRequest);
+        EntityModel<UserResponse> resource = userControllerHateoas.toModel(response);
+        return ResponseEntity.ok(resource);
+    }
+
     @Operation(
             summary = "Delete user",
             description = "Deletes a user by their ID"
@@ -157,4 +321,27 @@ public class UserController {
         userService.deleteUser(id);
         return ResponseEntity.noContent().build();
     }
+
+    @Operation(
+            summary = "Delete users in bulk",
+            description = "Deletes up to users.bulk-delete.max-size users in one request. "
+                    + "Ids of users that do not exist are listed in `missingIds`"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Users deleted",
+                    content = @Content(schema = @Schema(implementation = UserBulkDeleteResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Too many or malformed ids"
+            )
+    })
+    @DeleteMapping(params = "ids")
+    public ResponseEntity<UserBulkDeleteResponse> deleteUsers(
+            @Parameter(description = "Comma-separated IDs of the users to delete", required = true)
+            @RequestParam List<Long> ids) {
+        return ResponseEntity.ok(userService.deleteUsers(ids));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package org.example.userservice.controller.export;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.example.userservice.dto.UserResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes users as newline-delimited JSON, one object per line, straight to the response stream.
+ */
+@Component
+public class UserNdjsonWriter {
+
+    private static final int FLUSH_EVERY = 500;
+
+    private final ObjectWriter writer;
+
+    public UserNdjsonWriter(ObjectMapper objectMapper) {
+        this.writer = objectMapper.copy()
+                .addMixIn(UserResponse.class, WithoutLinks.class)
+                .writerFor(UserResponse.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    public Line open(OutputStream outputStream) {
+        return new Line(outputStream);
+    }
+
+    public class Line {
+
+        private final OutputStream outputStream;
+        private long written;
+
+        private Line(OutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        public void write(UserResponse user) {
+            try {
+                writer.writeValue(outputStream, user);
+                outputStream.write('\n');
+                // Первая строка уходит клиенту сразу, дальше сбрасываем буфер пачками
+                if (written++ % FLUSH_EVERY == 0) {
+                    outputStream.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @JsonIgnoreProperties("links")
+    private abstract static class WithoutLinks {
+    }
+}
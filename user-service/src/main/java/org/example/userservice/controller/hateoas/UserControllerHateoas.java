@@ -1,24 +1,75 @@
 package org.example.userservice.controller.hateoas;
 
 import org.example.userservice.controller.UserController;
+import org.example.userservice.dto.UserPage;
 import org.example.userservice.dto.UserResponse;
+import org.example.userservice.dto.UserSortField;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
+/**
+ * Builds user links by appending the id to the {@code /users} URI, which is resolved against
+ * the current request once per call instead of once per link through {@code methodOn} proxies.
+ */
 @Component
 public class UserControllerHateoas implements RepresentationModelAssembler<UserResponse, EntityModel<UserResponse>> {
 
     @Override
     public EntityModel<UserResponse> toModel(UserResponse user) {
+        String usersUri = usersUri();
+        return toModel(user, usersUri, Link.of(usersUri, "users"));
+    }
+
+    public CollectionModel<EntityModel<UserResponse>> toPageModel(UserPage page, Long after, int limit,
+                                                                  UserSortField sort) {
+        String usersUri = usersUri();
+        Link usersLink = Link.of(usersUri, "users");
+        List<EntityModel<UserResponse>> userResources = page.getUsers().stream()
+                .map(user -> toModel(user, usersUri, usersLink))
+                .toList();
+
+        CollectionModel<EntityModel<UserResponse>> collectionModel = CollectionModel.of(userResources,
+                linkTo(methodOn(UserController.class).getAllUsers(after, limit, sort)).withSelfRel());
+
+        if (page.getNextCursor() != null) {
+            collectionModel.add(linkTo(methodOn(UserController.class)
+                    .getAllUsers(page.getNextCursor(), limit, sort)).withRel(IanaLinkRelations.NEXT));
+        }
+        return collectionModel;
+    }
+
+    public CollectionModel<EntityModel<UserResponse>> toSearchModel(List<UserResponse> users) {
+        String usersUri = usersUri();
+        Link usersLink = Link.of(usersUri, "users");
+        List<EntityModel<UserResponse>> userResources = users.stream()
+                .map(user -> toModel(user, usersUri, usersLink))
+                .toList();
+        return CollectionModel.of(userResources,
+                Link.of(ServletUriComponentsBuilder.fromCurrentRequest().toUriString()).withSelfRel(),
+                usersLink);
+    }
+
+    private EntityModel<UserResponse> toModel(UserResponse user, String usersUri, Link usersLink) {
+        String userUri = usersUri + "/" + user.getUserId();
         return EntityModel.of(user,
-                linkTo(methodOn(UserController.class).getUserById(user.getUserId())).withSelfRel(),
-                linkTo(methodOn(UserController.class).updateUser(user.getUserId(), null)).withRel("update"),
-                linkTo(methodOn(UserController.class).deleteUser(user.getUserId())).withRel("delete"),
-                linkTo(methodOn(UserController.class).getAllUsers()).withRel("users")
+                Link.of(userUri).withSelfRel(),
+                Link.of(userUri, "update"),
+                Link.of(userUri, "delete"),
+                usersLink
         );
     }
+
+    private static String usersUri() {
+        return linkTo(UserController.class).toUri().toString();
+    }
 }
\ No newline at end of file
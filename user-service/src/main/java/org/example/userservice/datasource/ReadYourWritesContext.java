@@ -0,0 +1,49 @@
+package org.example.userservice.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks the current thread as serving a client that wrote recently, so that its read-only
+ * transactions are routed to the primary instead of a possibly lagging replica.
+ */
+public final class ReadYourWritesContext {
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private ReadYourWritesContext() {
+    }
+
+    public static void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED_TO_PRIMARY.get() != null;
+    }
+
+    public static void clear() {
+        PINNED_TO_PRIMARY.remove();
+    }
+
+    /**
+     * Runs the action on the current thread with the given pin and restores the previous one after.
+     * Used to carry a request's pin into work that may run on another thread, such as a cache load.
+     */
+    public static <T> T callWith(boolean pinnedToPrimary, Supplier<T> action) {
+        boolean previous = isPinnedToPrimary();
+        set(pinnedToPrimary);
+        try {
+            return action.get();
+        } finally {
+            set(previous);
+        }
+    }
+
+    private static void set(boolean pinnedToPrimary) {
+        if (pinnedToPrimary) {
+            pinToPrimary();
+        } else {
+            clear();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.example.userservice.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections of read-only transactions to the healthy replicas in turn and everything
+ * else to the primary. A replica is taken out of rotation when it refuses a connection or
+ * fails the periodic check, including lagging more than {@code maxLag} behind the primary,
+ * and comes back once a check passes. With no healthy replica reads fall back to the primary.
+ * <p>
+ * The transaction flags are only known after the transaction has begun, so this data source
+ * has to sit behind a {@code LazyConnectionDataSourceProxy}.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements DisposableBean {
+
+    // Реплика без входящего WAL считается догнавшей: иначе простой primary выглядел бы как отставание
+    private static final String LAG_QUERY = """
+            select case
+                       when not pg_is_in_recovery() or pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0
+                       else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0)
+                   end
+            """;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile List<Replica> healthyReplicas;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag) {
+        this.primary = primary;
+        this.replicas = replicas.entrySet().stream()
+                .map(replica -> new Replica(replica.getKey(), replica.getValue(), new AtomicBoolean(true)))
+                .toList();
+        this.maxLag = maxLag;
+        this.healthyReplicas = this.replicas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = routesToReplica() ? nextReplica() : null;
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.dataSource().getConnection();
+        } catch (SQLException e) {
+            markDown(replica, e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    public int healthyReplicaCount() {
+        return healthyReplicas.size();
+    }
+
+    @Scheduled(fixedDelayString = "${users.datasource.replica.health-check-interval-ms:2000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource().getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+                resultSet.next();
+                double lagSeconds = resultSet.getDouble(1);
+                if (lagSeconds * 1000 > maxLag.toMillis()) {
+                    markDown(replica, "replication lag " + lagSeconds + "s");
+                } else {
+                    markUp(replica);
+                }
+            } catch (SQLException e) {
+                markDown(replica, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource() instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static boolean routesToReplica() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !ReadYourWritesContext.isPinnedToPrimary();
+    }
+
+    private Replica nextReplica() {
+        List<Replica> healthy = healthyReplicas;
+        if (healthy.isEmpty()) {
+            return null;
+        }
+        return healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size()));
+    }
+
+    private void markDown(Replica replica, String reason) {
+        if (replica.healthy().compareAndSet(true, false)) {
+            log.warn("Replica {} removed from rotation: {}", replica.name(), reason);
+            refreshHealthyReplicas();
+        }
+    }
+
+    private void markUp(Replica replica) {
+        if (replica.healthy().compareAndSet(false, true)) {
+            log.info("Replica {} returned to rotation", replica.name());
+            refreshHealthyReplicas();
+        }
+    }
+
+    private synchronized void refreshHealthyReplicas() {
+        List<Replica> healthy = new ArrayList<>();
+        for (Replica replica : replicas) {
+            if (replica.healthy().get()) {
+                healthy.add(replica);
+            }
+        }
+        healthyReplicas = List.copyOf(healthy);
+    }
+
+    private record Replica(String name, DataSource dataSource, AtomicBoolean healthy) {
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchResponse {
+
+    private int created;
+    private int failed;
+    private List<UserBatchResult> results;
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package org.example.userservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserBatchResult {
+
+    private int index;
+    private Status status;
+    private UserResponse user;
+    private String message;
+    private Map<String, String> errors;
+
+    public enum Status {
+        CREATED,
+        CONFLICT,
+        INVALID
+    }
+}
\ No newline at end of file
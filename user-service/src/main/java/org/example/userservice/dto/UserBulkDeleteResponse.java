@@ -0,0 +1,18 @@
+package org.example.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBulkDeleteResponse {
+
+    private List<Long> deletedIds;
+    private List<Long> missingIds;
+}
@@ -0,0 +1,22 @@
+package org.example.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserMultiGetResponse {
+
+    /**
+     * Found users in the order their ids were requested, each id at most once.
+     */
+    private List<UserResponse> users;
+
+    private List<Long> missingIds;
+}
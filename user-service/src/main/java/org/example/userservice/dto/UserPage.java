@@ -0,0 +1,23 @@
+package org.example.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPage {
+
+    private List<UserResponse> users;
+
+    /**
+     * Id of the last user on the page, to be passed as {@code after} for the next page.
+     * {@code null} when there are no more users.
+     */
+    private Long nextCursor;
+}
@@ -0,0 +1,33 @@
+package org.example.userservice.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Partial update of a user: only non-null fields are changed. {@code version} must match
+ * the version the client last read.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPatchRequest {
+
+    @Pattern(regexp = ".*\\S.*", message = "Укажите имя")
+    @Size(min = 2, max = 100, message = "От 2 до 100 символов")
+    private String name;
+
+    @Pattern(regexp = ".*\\S.*", message = "Укажите почту")
+    @Email(message = "Почта должна быть в корректном виде")
+    private String email;
+
+    @Min(value = 0, message = "Возраст должен быть больше 0")
+    @Max(value = 150, message = "Возраст должен быть меньше 150")
+    private Integer age;
+
+    @NotNull(message = "Укажите версию")
+    private Long version;
+}
\ No newline at end of file
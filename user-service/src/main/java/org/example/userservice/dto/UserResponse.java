@@ -25,4 +25,5 @@ public class UserResponse extends RepresentationModel<UserResponse> {
     private Integer age;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 }
\ No newline at end of file
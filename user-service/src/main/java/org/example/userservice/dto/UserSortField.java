@@ -0,0 +1,25 @@
+package org.example.userservice.dto;
+
+import java.util.Arrays;
+
+public enum UserSortField {
+    ID("id"),
+    CREATED_AT("createdAt");
+
+    private final String param;
+
+    UserSortField(String param) {
+        this.param = param;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    public static UserSortField fromParam(String param) {
+        return Arrays.stream(values())
+                .filter(field -> field.param.equalsIgnoreCase(param) || field.name().equalsIgnoreCase(param))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Неизвестное поле сортировки: " + param));
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.userservice.emailfilter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free counting Bloom filter with 4-bit counters, so entries can be removed.
+ * A saturated counter is never decremented again: it may keep reporting a removed
+ * value (a false positive) but never forgets a present one.
+ */
+class CountingBloomFilter {
+
+    private static final int COUNTER_BITS = 4;
+    private static final int COUNTERS_PER_WORD = Long.SIZE / COUNTER_BITS;
+    private static final long MAX_COUNT = (1L << COUNTER_BITS) - 1;
+
+    private final AtomicLongArray words;
+    private final int counters;
+    private final int hashes;
+    private final AtomicLong entries = new AtomicLong();
+
+    CountingBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long optimalCounters = (long) Math.ceil(
+                -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.counters = (int) Math.min(Math.max(optimalCounters, Long.SIZE), Integer.MAX_VALUE - COUNTERS_PER_WORD);
+        this.hashes = Math.max(1, (int) Math.round((double) counters / expectedInsertions * Math.log(2)));
+        this.words = new AtomicLongArray((counters + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD);
+    }
+
+    boolean mightContain(String value) {
+        long hash = hash(value);
+        for (int i = 0; i < hashes; i++) {
+            if (counter(index(hash, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void add(String value) {
+        long hash = hash(value);
+        for (int i = 0; i < hashes; i++) {
+            update(index(hash, i), 1);
+        }
+        entries.incrementAndGet();
+    }
+
+    void remove(String value) {
+        long hash = hash(value);
+        for (int i = 0; i < hashes; i++) {
+            update(index(hash, i), -1);
+        }
+        entries.decrementAndGet();
+    }
+
+    /**
+     * False-positive probability for the current number of entries: (1 - e^(-kn/m))^k.
+     */
+    double expectedFalsePositiveRate() {
+        long n = Math.max(entries.get(), 0);
+        return Math.pow(1 - Math.exp(-(double) hashes * n / counters), hashes);
+    }
+
+    long memoryBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    long entries() {
+        return entries.get();
+    }
+
+    private long counter(int index) {
+        int shift = (index % COUNTERS_PER_WORD) * COUNTER_BITS;
+        return (words.get(index / COUNTERS_PER_WORD) >>> shift) & MAX_COUNT;
+    }
+
+    private void update(int index, int delta) {
+        int word = index / COUNTERS_PER_WORD;
+        int shift = (index % COUNTERS_PER_WORD) * COUNTER_BITS;
+        while (true) {
+            long current = words.get(word);
+            long count = (current >>> shift) & MAX_COUNT;
+            if (count == MAX_COUNT || (delta < 0 && count == 0)) {
+                return;
+            }
+            long updated = current + ((long) delta << shift);
+            if (words.compareAndSet(word, current, updated)) {
+                return;
+            }
+        }
+    }
+
+    // Двойное хеширование (Kirsch-Mitzenmacher): k индексов из одного 64-битного хеша
+    private int index(long hash, int i) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        return Math.floorMod(h1 + i * h2, counters);
+    }
+
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        // MurmurHash3 fmix64: FNV-1a плохо перемешивает старшие биты
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
\ No newline at end of file
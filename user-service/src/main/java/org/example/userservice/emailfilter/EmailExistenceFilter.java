@@ -0,0 +1,134 @@
+package org.example.userservice.emailfilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.userservice.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+/**
+ * In-memory filter of registered emails that lets the write path skip the duplicate-check
+ * query for emails that are certainly new. The unique constraint on {@code users.email}
+ * stays the final arbiter, so a stale filter only costs an extra query, never a duplicate.
+ * Until the filter has been warmed up every check goes to the database.
+ * <p>
+ * Every replica holds its own copy: it adds emails from its own writes and from the user events
+ * of all replicas, and removes only emails its own committed deletes released. Deletes on other
+ * replicas are not applied, so the filter errs towards false positives.
+ */
+@Slf4j
+@Component
+public class EmailExistenceFilter {
+
+    private final UserRepository userRepository;
+    private final CountingBloomFilter filter;
+    private final Counter skippedQueries;
+    private final Counter falsePositives;
+    private final AtomicLong positives = new AtomicLong();
+    private volatile boolean ready;
+
+    public EmailExistenceFilter(UserRepository userRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${users.email-filter.expected-insertions:1000000}") long expectedInsertions,
+                                @Value("${users.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.filter = new CountingBloomFilter(expectedInsertions, falsePositiveRate);
+        this.skippedQueries = Counter.builder("users.email.filter.skipped.queries")
+                .description("Duplicate-email checks answered by the filter without a query")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("users.email.filter.false.positives")
+                .description("Emails the filter reported as registered that the database did not have")
+                .register(meterRegistry);
+        Gauge.builder("users.email.filter.expected.fpp", filter, CountingBloomFilter::expectedFalsePositiveRate)
+                .description("False-positive probability expected for the current number of emails")
+                .register(meterRegistry);
+        Gauge.builder("users.email.filter.observed.fpp", this, EmailExistenceFilter::observedFalsePositiveRate)
+                .description("Share of positive filter answers the database did not confirm")
+                .register(meterRegistry);
+        Gauge.builder("users.email.filter.memory", filter, CountingBloomFilter::memoryBytes)
+                .description("Memory held by the filter counters")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    // Читаем с primary: на отстающей реплике не хватило бы последних адресов
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try (Stream<String> emails = userRepository.streamAllEmails()) {
+            emails.forEach(filter::add);
+            ready = true;
+            log.info("Email filter warmed up with {} emails, {} bytes", filter.entries(), filter.memoryBytes());
+        } catch (RuntimeException e) {
+            log.error("Email filter warm-up failed, duplicate checks will always query the database", e);
+        }
+    }
+
+    /**
+     * Returns {@code false} without running {@code query} when the email is certainly not
+     * registered, otherwise returns the result of {@code query}.
+     */
+    public boolean exists(String email, BooleanSupplier query) {
+        if (ready && !filter.mightContain(email)) {
+            skippedQueries.increment();
+            return false;
+        }
+
+        boolean exists = query.getAsBoolean();
+        if (ready) {
+            positives.incrementAndGet();
+            if (!exists) {
+                falsePositives.increment();
+            }
+        }
+        return exists;
+    }
+
+    public boolean mightExist(String email) {
+        return !ready || filter.mightContain(email);
+    }
+
+    public void add(String email) {
+        filter.add(email);
+    }
+
+    /**
+     * Forgets the email once the current transaction commits, so a rolled-back delete keeps it.
+     * Before warm-up the counters are incomplete and a decrement could zero counters shared
+     * with registered emails, so removals are skipped until then.
+     */
+    public void remove(String email) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            removeIfReady(email);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                removeIfReady(email);
+            }
+        });
+    }
+
+    private void removeIfReady(String email) {
+        if (ready) {
+            filter.remove(email);
+        }
+    }
+
+    private double observedFalsePositiveRate() {
+        long total = positives.get();
+        return total == 0 ? 0 : falsePositives.count() / total;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+package org.example.userservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.example.userservice.event.UserEvent;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "user_event_outbox", indexes = {
+        @Index(name = "idx_user_event_outbox_pending", columnList = "dispatched_at, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_event_outbox_seq")
+    @SequenceGenerator(name = "user_event_outbox_seq", sequenceName = "user_event_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false)
+    private UserEvent.EventType eventType;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    private String email;
+
+    private String name;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "dispatched_at")
+    private LocalDateTime dispatchedAt;
+
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public static OutboxEvent from(UserEvent event) {
+        return OutboxEvent.builder()
+                .eventType(event.getEventType())
+                .userId(event.getUserId())
+                .email(event.getEmail())
+                .name(event.getName())
+                .build();
+    }
+
+    public UserEvent toUserEvent() {
+        return UserEvent.builder()
+                .eventType(eventType)
+                .userId(userId)
+                .email(email)
+                .name(name)
+                .build();
+    }
+}
\ No newline at end of file
@@ -3,10 +3,17 @@ package org.example.userservice.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
+
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_created_at_id", columnList = "created_at, id")
+})
+@SQLRestriction("deleted_at is null")
+@SQLDelete(sql = "update users set deleted_at = localtimestamp where id = ? and version = ?")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,7 +22,8 @@ import java.time.LocalDateTime;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Укажите имя")
@@ -24,7 +32,6 @@ public class User {
 
     @NotBlank(message = "Укажите почту")
     @Email(message = "Почта должна быть в корректном виде")
-    @Column(unique = true)
     private String email;
 
     @Min(value = 0, message = "Возраст должен быть больше 0")
@@ -37,6 +44,16 @@ public class User {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    private Long version;
+
+    /**
+     * Set when the user is deleted. Deleted users are invisible to every entity query until
+     * {@code UserPurgeJob} removes the row.
+     */
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
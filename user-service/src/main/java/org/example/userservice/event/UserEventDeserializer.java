@@ -0,0 +1,17 @@
+package org.example.userservice.event;
+
+import org.example.event.AbstractUserEventDeserializer;
+import org.example.event.UserEventRecord;
+
+public class UserEventDeserializer extends AbstractUserEventDeserializer<UserEvent> {
+
+    @Override
+    protected UserEvent fromRecord(UserEventRecord record) {
+        return UserEvent.builder()
+                .eventType(UserEvent.EventType.valueOf(record.eventType()))
+                .userId(record.userId())
+                .email(record.email())
+                .name(record.name())
+                .build();
+    }
+}
\ No newline at end of file
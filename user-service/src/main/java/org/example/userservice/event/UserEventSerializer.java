@@ -0,0 +1,12 @@
+package org.example.userservice.event;
+
+import org.example.event.AbstractUserEventSerializer;
+import org.example.event.UserEventRecord;
+
+public class UserEventSerializer extends AbstractUserEventSerializer<UserEvent> {
+
+    @Override
+    protected UserEventRecord toRecord(UserEvent event) {
+        return new UserEventRecord(event.getEventType().name(), event.getUserId(), event.getEmail(), event.getName());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package org.example.userservice.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.example.userservice.entity.OutboxEvent;
+import org.example.userservice.event.UserEvent;
+import org.example.userservice.repository.OutboxEventRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Records user events in the outbox table as part of the caller's transaction.
+ * They reach Kafka through {@link UserEventOutboxRelay} only after that transaction commits.
+ */
+@Component
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class UserEventOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    public void enqueue(UserEvent event) {
+        outboxEventRepository.save(OutboxEvent.from(event));
+    }
+
+    public void enqueueAll(List<UserEvent> events) {
+        outboxEventRepository.saveAll(events.stream()
+                .map(OutboxEvent::from)
+                .toList());
+    }
+}
\ No newline at end of file
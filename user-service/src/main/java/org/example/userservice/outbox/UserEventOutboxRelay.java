@@ -0,0 +1,116 @@
+package org.example.userservice.outbox;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.userservice.entity.OutboxEvent;
+import org.example.userservice.producer.UserEventProducer;
+import org.example.userservice.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes pending outbox events to Kafka. A batch is claimed in a short transaction, then sent
+ * asynchronously as a whole with no transaction or row lock held, and only the events acknowledged
+ * within one deadline are marked as dispatched; the rest are released and retried on the next run.
+ * A batch holds at most one event per user (see {@link OutboxEventRepository#findClaimableForUpdate}),
+ * so neither a failed send nor another replica's relay can publish a user's events out of order.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserEventOutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final UserEventProducer userEventProducer;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${outbox.relay.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${outbox.relay.send-timeout-ms:10000}")
+    private long sendTimeoutMs = 10000;
+
+    @Value("${outbox.relay.claim-ttl-ms:60000}")
+    private long claimTtlMs = 60000;
+
+    @Value("${outbox.cleanup.retention-hours:24}")
+    private long retentionHours = 24;
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:200}")
+    public int relay() {
+        List<OutboxEvent> pending = claim();
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<?>> sends = pending.stream()
+                .<CompletableFuture<?>>map(event -> userEventProducer.sendUserEvent(event.toUserEvent()))
+                .toList();
+
+        // Один срок на всю пачку: зависший брокер задерживает релей на sendTimeoutMs, а не на каждое событие
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        List<Long> dispatched = new ArrayList<>();
+        List<Long> released = new ArrayList<>();
+        for (int i = 0; i < pending.size(); i++) {
+            OutboxEvent event = pending.get(i);
+            try {
+                long remainingNanos = Math.max(0, deadline - System.nanoTime());
+                sends.get(i).get(remainingNanos, TimeUnit.NANOSECONDS);
+                dispatched.add(event.getId());
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("Outbox event {} not acknowledged, will retry: {}", event.getId(), e.getMessage());
+                released.add(event.getId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pending.subList(i, pending.size()).forEach(rest -> released.add(rest.getId()));
+                break;
+            }
+        }
+
+        if (!dispatched.isEmpty()) {
+            outboxEventRepository.markDispatched(dispatched, LocalDateTime.now());
+        }
+        if (!released.isEmpty()) {
+            outboxEventRepository.releaseClaims(released);
+        }
+
+        log.debug("Relayed {} of {} outbox events", dispatched.size(), pending.size());
+        return dispatched.size();
+    }
+
+    /**
+     * Claims the oldest pending events for {@code claimTtlMs} and commits right away, so no row lock
+     * or connection is held while sending. If this relay dies, the claim expires and another takes over.
+     */
+    private List<OutboxEvent> claim() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        return transaction.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> pending = outboxEventRepository.findClaimableForUpdate(now, Limit.of(batchSize));
+            LocalDateTime claimedUntil = now.plus(claimTtlMs, ChronoUnit.MILLIS);
+            pending.forEach(event -> event.setClaimedUntil(claimedUntil));
+            return pending;
+        });
+    }
+
+    @Scheduled(cron = "${outbox.cleanup.cron:0 0 * * * *}")
+    @Transactional
+    public void cleanup() {
+        int deleted = outboxEventRepository.deleteDispatchedBefore(LocalDateTime.now().minusHours(retentionHours));
+        log.info("Deleted {} dispatched outbox events", deleted);
+    }
+}
\ No newline at end of file
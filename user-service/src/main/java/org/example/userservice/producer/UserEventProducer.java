@@ -1,28 +1,95 @@
 package org.example.userservice.producer;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.example.userservice.event.UserEvent;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class UserEventProducer {
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final Semaphore inFlightSends;
+    private final long maxBlockMs;
+    private final Timer ackTimer;
+    private final Counter failureCounter;
 
     @Value("${kafka.topic.user-events}")
     private String userEventsTopic;
 
-    public void sendUserEvent(UserEvent event) {
+    public UserEventProducer(KafkaTemplate<String, Object> kafkaTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${kafka.producer.max-in-flight-sends:10000}") int maxInFlightSends,
+                             @Value("${kafka.producer.max-block-ms:5000}") long maxBlockMs) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.inFlightSends = new Semaphore(maxInFlightSends);
+        this.maxBlockMs = maxBlockMs;
+        this.ackTimer = Timer.builder("user.events.ack.latency")
+                .description("Time from send until the broker acknowledged a user event")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("user.events.send.failures")
+                .description("User events the broker did not acknowledge")
+                .register(meterRegistry);
+        Gauge.builder("user.events.in.flight", inFlightSends, permits -> maxInFlightSends - permits.availablePermits())
+                .description("User events sent but not yet acknowledged")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sends the event asynchronously, keyed by user id so that all events of one user land
+     * on the same partition and are consumed in order. The returned future completes once the broker has
+     * acknowledged the record, or exceptionally if the send failed. When too many sends
+     * are unacknowledged the caller waits for a free slot, up to {@code kafka.producer.max-block-ms}.
+     * The Kafka client is given the same {@code max.block.ms}, so a full buffer or missing metadata
+     * cannot block the caller longer either.
+     */
+    public CompletableFuture<SendResult<String, Object>> sendUserEvent(UserEvent event) {
+        try {
+            if (!inFlightSends.tryAcquire(maxBlockMs, TimeUnit.MILLISECONDS)) {
+                failureCounter.increment();
+                return CompletableFuture.failedFuture(
+                        new RejectedExecutionException("Too many unacknowledged user events"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        long startNanos = System.nanoTime();
         try {
-            kafkaTemplate.send(userEventsTopic, event);
-            log.info("Sent user event: {} for email: {}", event.getEventType(), event.getEmail());
+            return kafkaTemplate.send(userEventsTopic, partitionKey(event), event)
+                    .whenComplete((result, ex) -> {
+                        inFlightSends.release();
+                        if (ex != null) {
+                            failureCounter.increment();
+                            log.error("Failed to send user event: {}", ex.getMessage(), ex);
+                        } else {
+                            ackTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                            log.debug("Sent user event: {} for email: {}", event.getEventType(), event.getEmail());
+                        }
+                    });
         } catch (Exception e) {
+            inFlightSends.release();
+            failureCounter.increment();
             log.error("Failed to send user event: {}", e.getMessage(), e);
+            return CompletableFuture.failedFuture(e);
         }
     }
+
+    private static String partitionKey(UserEvent event) {
+        return event.getUserId() != null ? event.getUserId().toString() : null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,56 @@
+package org.example.userservice.purge;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.userservice.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Physically removes users that were soft-deleted more than {@code users.purge.retention-hours} ago.
+ * Runs off-peak and deletes in small batches, each in its own short transaction with a pause in
+ * between, so that a large backlog never holds many row locks at once or floods WAL and vacuum.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserPurgeJob {
+
+    private final UserRepository userRepository;
+
+    @Value("${users.purge.retention-hours:168}")
+    private long retentionHours = 168;
+
+    @Value("${users.purge.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${users.purge.pause-ms:200}")
+    private long pauseMs = 200;
+
+    @Value("${users.purge.max-batches-per-run:1000}")
+    private int maxBatchesPerRun = 1000;
+
+    @Scheduled(cron = "${users.purge.cron:0 */15 1-5 * * *}")
+    public int purge() {
+        LocalDateTime before = LocalDateTime.now().minusHours(retentionHours);
+        int purged = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int deleted = userRepository.purgeDeletedBefore(before, batchSize);
+            purged += deleted;
+            if (deleted < batchSize) {
+                break;
+            }
+            try {
+                Thread.sleep(pauseMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        log.info("Purged {} deleted users", purged);
+        return purged;
+    }
+}
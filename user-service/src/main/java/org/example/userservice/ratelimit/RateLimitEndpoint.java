@@ -0,0 +1,50 @@
+package org.example.userservice.ratelimit;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@code /actuator/ratelimits}: shows the current limits of {@link RateLimitFilter};
+ * a POST with some of the fields changes only those, without a restart.
+ * Served only on the management port ({@code management.server.port}), which is bound
+ * to an internal interface, so API clients cannot change their own limits.
+ */
+@Endpoint(id = "ratelimits")
+public class RateLimitEndpoint {
+
+    private final RateLimitFilter rateLimitFilter;
+
+    public RateLimitEndpoint(RateLimitFilter rateLimitFilter) {
+        this.rateLimitFilter = rateLimitFilter;
+    }
+
+    @ReadOperation
+    public RateLimitSettings settings() {
+        return rateLimitFilter.getSettings();
+    }
+
+    @WriteOperation
+    public synchronized RateLimitSettings update(@Nullable Integer readBurst,
+                                                 @Nullable Double readPerSecond,
+                                                 @Nullable Integer writeBurst,
+                                                 @Nullable Double writePerSecond,
+                                                 @Nullable Integer maxConcurrentRequests) {
+        RateLimitSettings current = rateLimitFilter.getSettings();
+        RateLimitSettings updated;
+        try {
+            updated = new RateLimitSettings(
+                    readBurst != null ? readBurst : current.readBurst(),
+                    readPerSecond != null ? readPerSecond : current.readPerSecond(),
+                    writeBurst != null ? writeBurst : current.writeBurst(),
+                    writePerSecond != null ? writePerSecond : current.writePerSecond(),
+                    maxConcurrentRequests != null ? maxConcurrentRequests : current.maxConcurrentRequests());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+        rateLimitFilter.setSettings(updated);
+        return updated;
+    }
+}
@@ -0,0 +1,168 @@
+package org.example.userservice.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission control for the user API. Each client, identified by its API key or else by its IP,
+ * has one token bucket for reads and one for writes. Only keys from the configured set count:
+ * an unknown key is ignored and its request is limited by address, so rotating made-up keys
+ * neither earns a fresh burst nor floods the bucket cache; a request over its client's budget gets
+ * 429 with {@code Retry-After}. Admitted requests then pass a global in-flight limit, so
+ * overload is shed with 503 before requests pile up waiting for a database connection.
+ * Limits can be replaced at runtime with {@link #setSettings}.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private final String apiKeyHeader;
+    private final Set<String> apiKeys;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, TokenBucket> buckets;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter readRejections;
+    private final Counter writeRejections;
+    private final Counter shedRequests;
+    private volatile RateLimitSettings settings;
+
+    public RateLimitFilter(RateLimitSettings settings,
+                           String apiKeyHeader,
+                           Set<String> apiKeys,
+                           long maxClients,
+                           Duration idleClientExpiry,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.apiKeyHeader = apiKeyHeader;
+        this.apiKeys = Set.copyOf(apiKeys);
+        this.objectMapper = objectMapper;
+        // Ведро, простоявшее дольше полного пополнения, снова полное: его можно забыть
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(idleClientExpiry)
+                .build();
+        this.readRejections = rejections(meterRegistry, "read");
+        this.writeRejections = rejections(meterRegistry, "write");
+        this.shedRequests = rejections(meterRegistry, "concurrency");
+        Gauge.builder("users.rate.limit.in.flight", inFlight, AtomicInteger::get)
+                .description("Requests admitted and not yet completed")
+                .register(meterRegistry);
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("users.rate.limit.rejected")
+                .description("Requests rejected by rate limiting or load shedding")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    public RateLimitSettings getSettings() {
+        return settings;
+    }
+
+    public void setSettings(RateLimitSettings settings) {
+        this.settings = settings;
+        log.info("Rate limits changed: {}", settings);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RateLimitSettings limits = settings;
+        boolean read = SAFE_METHODS.contains(request.getMethod());
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get((read ? "read|" : "write|") + clientKey(request),
+                key -> new TokenBucket(now));
+        long waitNanos = read
+                ? bucket.tryAcquire(now, limits.readPerSecond(), limits.readBurst())
+                : bucket.tryAcquire(now, limits.writePerSecond(), limits.writeBurst());
+        if (waitNanos > 0) {
+            (read ? readRejections : writeRejections).increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, waitNanos, "Слишком много запросов, повторите позже");
+            return;
+        }
+
+        if (inFlight.incrementAndGet() > limits.maxConcurrentRequests()) {
+            inFlight.decrementAndGet();
+            shedRequests.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 0, "Сервис перегружен, повторите позже");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // Асинхронный запрос (выгрузка) держит слот и соединение до своего завершения
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete());
+            } else {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(apiKeyHeader);
+        return apiKey != null && apiKeys.contains(apiKey) ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long waitNanos, String message)
+            throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", status.value());
+        body.put("message", message);
+
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private class ReleaseOnComplete implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            inFlight.decrementAndGet();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
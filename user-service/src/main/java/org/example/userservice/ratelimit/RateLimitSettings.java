@@ -0,0 +1,24 @@
+package org.example.userservice.ratelimit;
+
+/**
+ * Limits of {@link RateLimitFilter}: per-client token buckets for reads and writes,
+ * and the number of requests the service handles at once.
+ */
+public record RateLimitSettings(int readBurst,
+                                double readPerSecond,
+                                int writeBurst,
+                                double writePerSecond,
+                                int maxConcurrentRequests) {
+
+    public RateLimitSettings {
+        if (readBurst < 1 || writeBurst < 1) {
+            throw new IllegalArgumentException("Размер burst должен быть не меньше 1");
+        }
+        if (!(readPerSecond > 0) || !(writePerSecond > 0)) {
+            throw new IllegalArgumentException("Скорость пополнения должна быть больше 0");
+        }
+        if (maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("Лимит одновременных запросов должен быть не меньше 1");
+        }
+    }
+}
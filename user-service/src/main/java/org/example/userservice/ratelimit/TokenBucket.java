@@ -0,0 +1,41 @@
+package org.example.userservice.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket in GCRA form: instead of a token count the bucket keeps the theoretical arrival
+ * time of the next request, a single long updated by CAS, so concurrent requests never block.
+ * Rate and burst are passed on every call and new limits apply to existing buckets at once.
+ */
+final class TokenBucket {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final AtomicLong theoreticalArrivalNanos;
+
+    TokenBucket(long nowNanos) {
+        this.theoreticalArrivalNanos = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token.
+     *
+     * @return 0 if the request is admitted, otherwise nanoseconds until the next token is available
+     */
+    long tryAcquire(long nowNanos, double permitsPerSecond, int burst) {
+        long intervalNanos = (long) (NANOS_PER_SECOND / permitsPerSecond);
+        long toleranceNanos = intervalNanos * (burst - 1);
+        while (true) {
+            long arrival = theoreticalArrivalNanos.get();
+            // Пустующее ведро не копит токены сверх burst: отсчёт идёт не раньше текущего момента
+            long start = arrival - nowNanos > 0 ? arrival : nowNanos;
+            long waitNanos = start - nowNanos - toleranceNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrivalNanos.compareAndSet(arrival, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
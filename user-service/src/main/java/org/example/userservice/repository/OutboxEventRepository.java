@@ -0,0 +1,54 @@
+package org.example.userservice.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.example.userservice.entity.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the oldest pending events that no relay has claimed, or whose claim has expired;
+     * rows already locked by another replica's relay are skipped instead of waited for.
+     * An event is only claimable while no earlier event of the same user is pending, so at most
+     * one event per user is in flight across all relays and they reach Kafka in outbox order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            select e from OutboxEvent e
+            where e.dispatchedAt is null
+              and (e.claimedUntil is null or e.claimedUntil < :now)
+              and not exists (select 1 from OutboxEvent p
+                              where p.userId = e.userId and p.dispatchedAt is null and p.id < e.id)
+            order by e.id asc
+            """)
+    List<OutboxEvent> findClaimableForUpdate(@Param("now") LocalDateTime now, Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("update OutboxEvent e set e.dispatchedAt = :dispatchedAt, e.claimedUntil = null where e.id in :ids")
+    int markDispatched(@Param("ids") Collection<Long> ids, @Param("dispatchedAt") LocalDateTime dispatchedAt);
+
+    @Modifying
+    @Transactional
+    @Query("update OutboxEvent e set e.claimedUntil = null where e.id in :ids")
+    int releaseClaims(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.dispatchedAt < :before")
+    int deleteDispatchedBefore(@Param("before") LocalDateTime before);
+}
\ No newline at end of file
@@ -1,17 +1,84 @@
 package org.example.userservice.repository;
 
+import jakarta.persistence.QueryHint;
 import org.example.userservice.entity.User;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
 
-    Optional<User> findByEmail(String email);
+    /**
+     * Looks the email up case-insensitively, through the {@code users_lower_email_active_key} index.
+     * That index also makes emails unique regardless of case, so at most one user matches.
+     */
+    @Query("select u from User u where lower(u.email) = lower(:email)")
+    Optional<User> findByEmail(@Param("email") String email);
 
     boolean existsByEmail(String email);
 
     boolean existsByEmailAndIdNot(String email, Long id);
-}
\ No newline at end of file
+
+    @Query("select u.email from User u where u.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    List<User> findAllByOrderByCreatedAtAscIdAsc(Limit limit);
+
+    @Query("""
+            select u from User u
+            where u.createdAt >= :createdAt
+              and (u.createdAt > :createdAt or u.id > :id)
+            order by u.createdAt asc, u.id asc
+            """)
+    List<User> findPageAfterCreatedAt(@Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") Long id,
+                                      Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select u from User u order by u.id asc")
+    Stream<User> streamAllOrderedById();
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.email from User u")
+    Stream<String> streamAllEmails();
+
+    @Query("select u.createdAt from User u where u.id = :id")
+    Optional<LocalDateTime> findCreatedAtById(@Param("id") Long id);
+
+    /**
+     * Physically deletes up to {@code limit} users deleted before {@code before}, in its own
+     * transaction. Rows locked by a concurrent purge are skipped.
+     *
+     * @return the number of rows removed
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            delete from users
+            where id in (select id from users
+                         where deleted_at < :before
+                         order by deleted_at
+                         limit :limit
+                         for update skip locked)
+            """, nativeQuery = true)
+    int purgeDeletedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -0,0 +1,34 @@
+package org.example.userservice.repository;
+
+import org.example.userservice.entity.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Updates the non-null fields of the user and bumps its version in a single
+     * {@code UPDATE ... WHERE id = ? AND version = ? RETURNING *}.
+     *
+     * @return the updated user, or empty if the user does not exist or its version differs
+     */
+    Optional<User> updateIfVersionMatches(Long id, long version, String name, String email, Integer age);
+
+    /**
+     * Marks the users as deleted in a single {@code UPDATE ... SET deleted_at ... RETURNING id, email, name}.
+     * Users deleted before are left untouched and not returned.
+     *
+     * @return the deleted users, detached and with only id, email and name set
+     */
+    List<User> softDeleteAllByIdReturning(Collection<Long> ids);
+
+    /**
+     * Finds users by name, case-insensitively: names starting with {@code query} first, in name order,
+     * then names similar to it by trigram similarity, closest first.
+     *
+     * @return at most {@code limit} users
+     */
+    List<User> searchByName(String query, int limit);
+}
\ No newline at end of file
@@ -0,0 +1,117 @@
+package org.example.userservice.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.example.userservice.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<User> updateIfVersionMatches(Long id, long version, String name, String email, Integer age) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (name != null) {
+            changes.put("name", name);
+        }
+        if (email != null) {
+            changes.put("email", email);
+        }
+        if (age != null) {
+            changes.put("age", age);
+        }
+        changes.put("updated_at", LocalDateTime.now());
+
+        StringBuilder sql = new StringBuilder("update users set version = version + 1");
+        changes.keySet().forEach(column -> sql.append(", ").append(column).append(" = :").append(column));
+        sql.append(" where id = :id and version = :version and deleted_at is null returning *");
+
+        Query query = entityManager.createNativeQuery(sql.toString(), User.class)
+                .setParameter("id", id)
+                .setParameter("version", version);
+        changes.forEach(query::setParameter);
+
+        List<User> updated = query.getResultList();
+        return updated.stream().findFirst();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<User> softDeleteAllByIdReturning(Collection<Long> ids) {
+        // Столбцы для события об удалении приходят из того же запроса, без предварительного select.
+        // Строка остаётся на месте: индексы не перестраиваются, физически её удалит UserPurgeJob
+        List<Object[]> rows = entityManager.createNativeQuery("""
+                        update users set deleted_at = :deletedAt
+                        where id in (:ids) and deleted_at is null
+                        returning id, email, name
+                        """)
+                .setParameter("deletedAt", LocalDateTime.now())
+                .setParameter("ids", ids)
+                .getResultList();
+        return rows.stream()
+                .map(row -> User.builder()
+                        .id(((Number) row[0]).longValue())
+                        .email((String) row[1])
+                        .name((String) row[2])
+                        .build())
+                .toList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<User> searchByName(String query, int limit) {
+        // Префикс и сортировка идут по idx_users_name_prefix, без сортировки всех совпадений
+        List<User> prefixMatches = entityManager.createNativeQuery("""
+                        select * from users
+                        where lower(name) collate "C" like lower(:prefix) escape '\\'
+                          and deleted_at is null
+                        order by lower(name) collate "C", id
+                        limit :limit
+                        """, User.class)
+                .setParameter("prefix", escapeLike(query) + "%")
+                .setParameter("limit", limit)
+                .getResultList();
+        if (prefixMatches.size() >= limit) {
+            return prefixMatches;
+        }
+
+        // KNN по GiST-индексу idx_users_name_trgm: ближайшие limit имён без подсчёта сходства для всех строк
+        List<User> similarMatches = entityManager.createNativeQuery("""
+                        select * from users
+                        where lower(name) % lower(:query)
+                          and deleted_at is null
+                        order by lower(name) <-> lower(:query)
+                        limit :limit
+                        """, User.class)
+                .setParameter("query", query)
+                .setParameter("limit", limit)
+                .getResultList();
+
+        Map<Long, User> ranked = new LinkedHashMap<>();
+        prefixMatches.forEach(user -> ranked.put(user.getId(), user));
+        for (User user : similarMatches) {
+            if (ranked.size() == limit) {
+                break;
+            }
+            ranked.putIfAbsent(user.getId(), user);
+        }
+        return new ArrayList<>(ranked.values());
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
\ No newline at end of file
@@ -1,19 +1,41 @@
 package org.example.userservice.service;
 
+import org.example.userservice.dto.UserBatchResponse;
+import org.example.userservice.dto.UserBulkDeleteResponse;
+import org.example.userservice.dto.UserMultiGetResponse;
+import org.example.userservice.dto.UserPage;
+import org.example.userservice.dto.UserPatchRequest;
 import org.example.userservice.dto.UserRequest;
 import org.example.userservice.dto.UserResponse;
+import org.example.userservice.dto.UserSortField;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface UserService {
 
     UserResponse createUser(UserRequest userRequest);
 
+    UserBatchResponse createUsers(List<UserRequest> userRequests);
+
     UserResponse getUserById(Long id);
 
-    List<UserResponse> getAllUsers();
+    UserMultiGetResponse getUsersByIds(List<Long> ids);
+
+    UserPage getAllUsers(Long after, int limit, UserSortField sort);
+
+    void exportUsers(Consumer<UserResponse> consumer);
+
+    List<UserResponse> searchUsers(String query, int limit);
+
+    Optional<UserResponse> findUserByEmail(String email);
 
     UserResponse updateUser(Long id, UserRequest userRequest);
 
+    UserResponse patchUser(Long id, UserPatchRequest patchRequest);
+
     void deleteUser(Long id);
+
+    UserBulkDeleteResponse deleteUsers(List<Long> ids);
 }
\ No newline at end of file
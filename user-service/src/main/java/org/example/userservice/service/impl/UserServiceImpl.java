@@ -1,38 +1,114 @@
 package org.example.userservice.service.impl;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.example.userservice.config.CacheConfig;
+import org.example.userservice.datasource.ReadYourWritesContext;
+import org.example.userservice.dto.UserBatchResponse;
+import org.example.userservice.dto.UserBatchResult;
+import org.example.userservice.dto.UserBulkDeleteResponse;
+import org.example.userservice.dto.UserMultiGetResponse;
+import org.example.userservice.dto.UserPage;
+import org.example.userservice.dto.UserPatchRequest;
 import org.example.userservice.dto.UserRequest;
 import org.example.userservice.dto.UserResponse;
+import org.example.userservice.dto.UserSortField;
+import org.example.userservice.emailfilter.EmailExistenceFilter;
 import org.example.userservice.entity.User;
 import org.example.userservice.event.UserEvent;
+import org.example.userservice.exception.BatchSizeExceededException;
 import org.example.userservice.exception.ResourceNotFoundException;
+import org.example.userservice.exception.VersionConflictException;
 import org.example.userservice.exception.DuplicateEmailException;
 import org.example.userservice.mapper.UserMapper;
-import org.example.userservice.producer.UserEventProducer;
+import org.example.userservice.outbox.UserEventOutbox;
 import org.example.userservice.repository.UserRepository;
 import org.example.userservice.service.UserService;
+import org.example.userservice.singleflight.SingleFlight;
+import org.hibernate.JDBCException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
+@Timed(value = "users.service", description = "UserService calls, tagged by method and exception")
 public class UserServiceImpl implements UserService {
 
+    private static final int EMAIL_LOOKUP_CHUNK = 1000;
+    private static final String UNIQUE_VIOLATION_SQL_STATE = "23505";
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
-    private final UserEventProducer userEventProducer;
+    private final UserEventOutbox userEventOutbox;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final EmailExistenceFilter emailExistenceFilter;
+    private final CacheManager cacheManager;
+    private final SingleFlight<Long, UserResponse> userLoads;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${users.page.max-size:100}")
+    private int maxPageSize = 100;
+
+    @Value("${users.search.max-size:50}")
+    private int maxSearchSize = 50;
+
+    @Value("${users.multi-get.max-size:1000}")
+    private int maxMultiGetSize = 1000;
+
+    @Value("${users.multi-get.chunk-size:500}")
+    private int multiGetChunkSize = 500;
+
+    @Value("${users.bulk-delete.max-size:10000}")
+    private int maxBulkDeleteSize = 10000;
+
+    @Value("${users.bulk-delete.chunk-size:1000}")
+    private int bulkDeleteChunkSize = 1000;
+
+    @Value("${users.batch.max-size:10000}")
+    private int maxBatchSize = 10000;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int jdbcBatchSize = 50;
 
     @Override
     public UserResponse createUser(UserRequest userRequest) {
-        if (userRepository.existsByEmail(userRequest.getEmail())) {
-            throw new DuplicateEmailException("Почта уже используется: " + userRequest.getEmail());
+        String email = userRequest.getEmail();
+        if (emailExistenceFilter.exists(email, () -> userRepository.existsByEmail(email))) {
+            throw new DuplicateEmailException("Почта уже используется: " + email);
         }
 
         User user = userMapper.toEntity(userRequest);
         User savedUser = userRepository.save(user);
+        flushUniqueEmail(email);
+        emailExistenceFilter.add(email);
 
         UserEvent event = UserEvent.builder()
                 .eventType(UserEvent.EventType.USER_CREATED)
@@ -40,59 +116,445 @@ public class UserServiceImpl implements UserService {
                 .email(savedUser.getEmail())
                 .name(savedUser.getName())
                 .build();
-        userEventProducer.sendUserEvent(event);
+        userEventOutbox.enqueue(event);
 
         return userMapper.toResponse(savedUser);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UserBatchResponse createUsers(List<UserRequest> userRequests) {
+        if (userRequests.size() > maxBatchSize) {
+            throw new BatchSizeExceededException("Слишком много пользователей в запросе: "
+                    + userRequests.size() + ", максимум " + maxBatchSize);
+        }
+
+        UserBatchResult[] results = new UserBatchResult[userRequests.size()];
+        Map<String, Integer> candidates = new LinkedHashMap<>();
+
+        for (int i = 0; i < userRequests.size(); i++) {
+            UserRequest userRequest = userRequests.get(i);
+            Set<ConstraintViolation<UserRequest>> violations = validator.validate(userRequest);
+            if (!violations.isEmpty()) {
+                Map<String, String> errors = new HashMap<>();
+                violations.forEach(violation ->
+                        errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+                results[i] = UserBatchResult.builder()
+                        .index(i)
+                        .status(UserBatchResult.Status.INVALID)
+                        .errors(errors)
+                        .build();
+            } else if (candidates.putIfAbsent(userRequest.getEmail(), i) != null) {
+                results[i] = conflict(i, "Почта повторяется в запросе: " + userRequest.getEmail());
+            }
+        }
+
+        // Одна выборка на пачку адресов вместо existsByEmail на каждого пользователя
+        Set<String> existingEmails = new HashSet<>();
+        List<String> emails = candidates.keySet().stream()
+                .filter(emailExistenceFilter::mightExist)
+                .toList();
+        for (int from = 0; from < emails.size(); from += EMAIL_LOOKUP_CHUNK) {
+            existingEmails.addAll(userRepository.findExistingEmails(
+                    emails.subList(from, Math.min(from + EMAIL_LOOKUP_CHUNK, emails.size()))));
+        }
+
+        List<Integer> pendingIndexes = new ArrayList<>();
+        for (Map.Entry<String, Integer> candidate : candidates.entrySet()) {
+            int index = candidate.getValue();
+            if (existingEmails.contains(candidate.getKey())) {
+                results[index] = conflict(index, "Почта уже используется: " + candidate.getKey());
+                continue;
+            }
+
+            pendingIndexes.add(index);
+            if (pendingIndexes.size() == jdbcBatchSize) {
+                saveBatch(userRequests, pendingIndexes, results);
+            }
+        }
+        saveBatch(userRequests, pendingIndexes, results);
+
+        List<UserBatchResult> resultList = Arrays.asList(results);
+        int created = (int) resultList.stream()
+                .filter(result -> result.getStatus() == UserBatchResult.Status.CREATED)
+                .count();
+        return UserBatchResponse.builder()
+                .created(created)
+                .failed(resultList.size() - created)
+                .results(resultList)
+                .build();
+    }
+
+    /**
+     * Saves one chunk in its own transaction. If a concurrent request took one of the emails
+     * after the duplicate check, the unique index rejects the whole chunk; it is then retried
+     * user by user, so only the taken emails are reported as CONFLICT.
+     */
+    private void saveBatch(List<UserRequest> userRequests, List<Integer> indexes, UserBatchResult[] results) {
+        if (indexes.isEmpty()) {
+            return;
+        }
+
+        try {
+            insertUsers(userRequests, indexes, results);
+        } catch (DataIntegrityViolationException e) {
+            if (!isUniqueViolation(e)) {
+                throw e;
+            }
+            for (Integer index : indexes) {
+                try {
+                    insertUsers(userRequests, List.of(index), results);
+                } catch (DataIntegrityViolationException single) {
+                    if (!isUniqueViolation(single)) {
+                        throw single;
+                    }
+                    results[index] = conflict(index, "Почта уже используется: " + userRequests.get(index).getEmail());
+                }
+            }
+        }
+        indexes.clear();
+    }
+
+    private void insertUsers(List<UserRequest> userRequests, List<Integer> indexes, UserBatchResult[] results) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<User> savedUsers = transaction.execute(status -> {
+            List<User> saved = userRepository.saveAll(indexes.stream()
+                    .map(index -> userMapper.toEntity(userRequests.get(index)))
+                    .toList());
+            userEventOutbox.enqueueAll(saved.stream()
+                    .map(savedUser -> UserEvent.builder()
+                            .eventType(UserEvent.EventType.USER_CREATED)
+                            .userId(savedUser.getId())
+                            .email(savedUser.getEmail())
+                            .name(savedUser.getName())
+                            .build())
+                    .toList());
+            // Отправляем пачку INSERT-ов здесь, чтобы занятая почта откатила только эту пачку
+            userRepository.flush();
+            return saved;
+        });
+        savedUsers.forEach(savedUser -> emailExistenceFilter.add(savedUser.getEmail()));
+
+        for (int i = 0; i < savedUsers.size(); i++) {
+            int index = indexes.get(i);
+            results[index] = UserBatchResult.builder()
+                    .index(index)
+                    .status(UserBatchResult.Status.CREATED)
+                    .user(userMapper.toResponse(savedUsers.get(i)))
+                    .build();
+        }
+    }
+
+    private UserBatchResult conflict(int index, String message) {
+        return UserBatchResult.builder()
+                .index(index)
+                .status(UserBatchResult.Status.CONFLICT)
+                .message(message)
+                .build();
+    }
+
+    /**
+     * Flushes pending changes so that a unique-constraint violation on the email surfaces
+     * here, where it can be reported as a duplicate, rather than at commit.
+     */
+    private void flushUniqueEmail(String email) {
+        try {
+            userRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (isUniqueViolation(e)) {
+                throw new DuplicateEmailException("Почта уже используется: " + email);
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isUniqueViolation(DataIntegrityViolationException e) {
+        return e.getCause() instanceof JDBCException jdbcException
+                && UNIQUE_VIOLATION_SQL_STATE.equals(jdbcException.getSQLState());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UserResponse getUserById(Long id) {
+        Cache cache = cacheManager.getCache(CacheConfig.USERS_CACHE);
+        UserResponse cached = cache != null ? cache.get(id, UserResponse.class) : null;
+        if (cached != null) {
+            return cached;
+        }
+        // Одновременные промахи по одному id ждут одну загрузку. Сама загрузка идёт через get кэша:
+        // вытеснение после записи дождётся её и не оставит в кэше старое значение.
+        // Транзакцию на чтение открывает сам загрузчик: в асинхронном режиме кэша (виртуальные потоки)
+        // он выполняется на потоке кэша, а не на вызывающем. Читает он всегда с primary: отстающая реплика
+        // вернула бы строку старше уже пришедшего вытеснения, и она жила бы в кэше до истечения TTL.
+        // Поэтому же все ожидающие получают значение с primary. Попадания в кэш и ожидающие соединение не занимают
+        Supplier<UserResponse> load = () -> ReadYourWritesContext.callWith(true,
+                () -> inReadOnlyTransaction(() -> loadUser(id)));
+        return userLoads.load(id, () -> cache != null ? loadThroughCache(cache, id, load) : load.get());
+    }
+
+    private <T> T inReadOnlyTransaction(Supplier<T> action) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> action.get());
+    }
+
+    private UserResponse loadThroughCache(Cache cache, Long id, Supplier<UserResponse> load) {
+        try {
+            return cache.get(id, load::get);
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private UserResponse loadUser(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Пользователь не найден: " + id));
         return userMapper.toResponse(user);
     }
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UserMultiGetResponse getUsersByIds(List<Long> ids) {
+        if (ids.size() > maxMultiGetSize) {
+            throw new BatchSizeExceededException("Слишком много идентификаторов в запросе: "
+                    + ids.size() + ", максимум " + maxMultiGetSize);
+        }
+
+        Set<Long> requestedIds = new LinkedHashSet<>(ids);
+        requestedIds.remove(null);
+
+        // Сначала кэш, в базу идут только промахи — тем же кэшем пользуется getUserById
+        Map<Long, UserResponse> found = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        Cache cache = cacheManager.getCache(CacheConfig.USERS_CACHE);
+        for (Long id : requestedIds) {
+            UserResponse cached = cache != null ? cache.get(id, UserResponse.class) : null;
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                misses.add(id);
+            }
+        }
+
+        // Один запрос с IN на порцию идентификаторов. Промахи попадают в кэш, поэтому читаются
+        // с primary, как и в getUserById
+        ReadYourWritesContext.callWith(true, () -> inReadOnlyTransaction(() -> {
+            for (int from = 0; from < misses.size(); from += multiGetChunkSize) {
+                List<Long> chunk = misses.subList(from, Math.min(from + multiGetChunkSize, misses.size()));
+                for (User user : userRepository.findAllById(chunk)) {
+                    UserResponse response = userMapper.toResponse(user);
+                    found.put(user.getId(), response);
+                    if (cache != null) {
+                        cache.putIfAbsent(user.getId(), response);
+                    }
+                }
+            }
+            return null;
+        }));
+
+        List<UserResponse> users = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requestedIds) {
+            UserResponse response = found.get(id);
+            if (response != null) {
+                users.add(response);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return UserMultiGetResponse.builder()
+                .users(users)
+                .missingIds(missingIds)
+                .build();
+    }
+
     @Override
     @Transactional(readOnly = true)
-    public List<UserResponse> getAllUsers() {
-        return userRepository.findAll()
-                .stream()
+    public UserPage getAllUsers(Long after, int limit, UserSortField sort) {
+        int pageSize = Math.min(Math.max(limit, 1), maxPageSize);
+        // Берём на одну запись больше, чтобы узнать, есть ли следующая страница, без count-запроса
+        Limit seekLimit = Limit.of(pageSize + 1);
+
+        List<User> users = switch (sort) {
+            case ID -> userRepository.findByIdGreaterThanOrderByIdAsc(after == null ? 0L : after, seekLimit);
+            case CREATED_AT -> after == null
+                    ? userRepository.findAllByOrderByCreatedAtAscIdAsc(seekLimit)
+                    : userRepository.findPageAfterCreatedAt(
+                            userRepository.findCreatedAtById(after)
+                                    .orElseThrow(() -> new ResourceNotFoundException("Пользователь не найден: " + after)),
+                            after, seekLimit);
+        };
+
+        boolean hasNext = users.size() > pageSize;
+        List<UserResponse> content = users.stream()
+                .limit(pageSize)
                 .map(userMapper::toResponse)
                 .toList();
+
+        return UserPage.builder()
+                .users(content)
+                .nextCursor(hasNext ? content.get(content.size() - 1).getUserId() : null)
+                .build();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public void exportUsers(Consumer<UserResponse> consumer) {
+        try (Stream<User> users = userRepository.streamAllOrderedById()) {
+            users.forEach(user -> {
+                consumer.accept(userMapper.toResponse(user));
+                // Не даём контексту персистентности расти вместе с таблицей
+                entityManager.detach(user);
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserResponse> searchUsers(String query, int limit) {
+        int searchSize = Math.min(Math.max(limit, 1), maxSearchSize);
+        return userRepository.searchByName(query, searchSize).stream()
+                .map(userMapper::toResponse)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<UserResponse> findUserByEmail(String email) {
+        return userRepository.findByEmail(email)
+                .map(userMapper::toResponse);
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#id")
     public UserResponse updateUser(Long id, UserRequest userRequest) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Пользователь не найден: " + id));
 
-        if (!user.getEmail().equals(userRequest.getEmail())
-                && userRepository.existsByEmailAndIdNot(userRequest.getEmail(), id)) {
-            throw new DuplicateEmailException("Почта уже используется: " + userRequest.getEmail());
+        String previousEmail = user.getEmail();
+        String email = userRequest.getEmail();
+        boolean emailChanged = !previousEmail.equals(email);
+        if (emailChanged
+                && emailExistenceFilter.exists(email, () -> userRepository.existsByEmailAndIdNot(email, id))) {
+            throw new DuplicateEmailException("Почта уже используется: " + email);
         }
 
         user.setName(userRequest.getName());
-        user.setEmail(userRequest.getEmail());
+        user.setEmail(email);
         user.setAge(userRequest.getAge());
 
         User updatedUser = userRepository.save(user);
+        if (emailChanged) {
+            flushUniqueEmail(email);
+            emailExistenceFilter.add(email);
+            emailExistenceFilter.remove(previousEmail);
+        }
+
+        UserEvent event = UserEvent.builder()
+                .eventType(UserEvent.EventType.USER_UPDATED)
+                .userId(updatedUser.getId())
+                .email(updatedUser.getEmail())
+                .name(updatedUser.getName())
+                .build();
+        userEventOutbox.enqueue(event);
+
         return userMapper.toResponse(updatedUser);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#id")
+    public UserResponse patchUser(Long id, UserPatchRequest patchRequest) {
+        // Один UPDATE ... RETURNING вместо findById + existsByEmailAndIdNot + save;
+        // занятую почту отклоняет уникальный индекс
+        User patchedUser;
+        try {
+            patchedUser = userRepository.updateIfVersionMatches(id, patchRequest.getVersion(),
+                    patchRequest.getName(), patchRequest.getEmail(), patchRequest.getAge()).orElse(null);
+        } catch (DataIntegrityViolationException e) {
+            if (isUniqueViolation(e)) {
+                throw new DuplicateEmailException("Почта уже используется: " + patchRequest.getEmail());
+            }
+            throw e;
+        }
+
+        if (patchedUser == null) {
+            if (!userRepository.existsById(id)) {
+                throw new ResourceNotFoundException("Пользователь не найден: " + id);
+            }
+            throw new VersionConflictException("Пользователь " + id + " уже изменён, версия "
+                    + patchRequest.getVersion() + " устарела");
+        }
+
+        // Прежний адрес остаётся в фильтре: это лишь ложное срабатывание и лишний запрос
+        if (patchRequest.getEmail() != null) {
+            emailExistenceFilter.add(patchRequest.getEmail());
+        }
+
+        UserEvent event = UserEvent.builder()
+                .eventType(UserEvent.EventType.USER_UPDATED)
+                .userId(patchedUser.getId())
+                .email(patchedUser.getEmail())
+                .name(patchedUser.getName())
+                .build();
+        userEventOutbox.enqueue(event);
+
+        return userMapper.toResponse(patchedUser);
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#id")
     public void deleteUser(Long id) {
-        User user = userRepository.findById(id)
+        User user = userRepository.softDeleteAllByIdReturning(List.of(id)).stream()
+                .findFirst()
                 .orElseThrow(() -> new ResourceNotFoundException("Пользователь не найден: " + id));
 
-        userRepository.deleteById(id);
+        emailExistenceFilter.remove(user.getEmail());
+        userEventOutbox.enqueue(deletedEvent(user));
+    }
 
-        UserEvent event = UserEvent.builder()
+    @Override
+    public UserBulkDeleteResponse deleteUsers(List<Long> ids) {
+        if (ids.size() > maxBulkDeleteSize) {
+            throw new BatchSizeExceededException("Слишком много идентификаторов в запросе: "
+                    + ids.size() + ", максимум " + maxBulkDeleteSize);
+        }
+
+        Set<Long> requestedIds = new LinkedHashSet<>(ids);
+        requestedIds.remove(null);
+        List<Long> idList = new ArrayList<>(requestedIds);
+
+        Set<Long> deletedIds = new HashSet<>();
+        List<UserEvent> events = new ArrayList<>();
+        Cache cache = cacheManager.getCache(CacheConfig.USERS_CACHE);
+        for (int from = 0; from < idList.size(); from += bulkDeleteChunkSize) {
+            List<Long> chunk = idList.subList(from, Math.min(from + bulkDeleteChunkSize, idList.size()));
+            for (User user : userRepository.softDeleteAllByIdReturning(chunk)) {
+                deletedIds.add(user.getId());
+                emailExistenceFilter.remove(user.getEmail());
+                if (cache != null) {
+                    cache.evict(user.getId());
+                }
+                events.add(deletedEvent(user));
+            }
+        }
+        // События уходят в outbox одной пачкой вставок
+        userEventOutbox.enqueueAll(events);
+
+        return UserBulkDeleteResponse.builder()
+                .deletedIds(idList.stream().filter(deletedIds::contains).toList())
+                .missingIds(idList.stream().filter(id -> !deletedIds.contains(id)).toList())
+                .build();
+    }
+
+    private static UserEvent deletedEvent(User user) {
+        return UserEvent.builder()
                 .eventType(UserEvent.EventType.USER_DELETED)
                 .userId(user.getId())
                 .email(user.getEmail())
                 .name(user.getName())
                 .build();
-        userEventProducer.sendUserEvent(event);
     }
 }
\ No newline at end of file
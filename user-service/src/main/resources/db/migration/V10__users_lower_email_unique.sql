@@ -0,0 +1,7 @@
+-- Поиск по почте не учитывает регистр, значит и уникальность тоже: иначе A@x.com и a@x.com
+-- оба проходят вставку, а findByEmail по любому из них находит две строки
+create unique index concurrently if not exists users_lower_email_active_key on users (lower(email)) where deleted_at is null;
+
+-- Поиск без учёта регистра теперь идёт по уникальному индексу. users_email_active_key остаётся:
+-- по нему идут точные проверки занятости почты
+drop index concurrently if exists idx_users_lower_email;
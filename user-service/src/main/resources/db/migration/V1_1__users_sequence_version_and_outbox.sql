@@ -0,0 +1,34 @@
+-- Объекты, которые до Flyway добавляли вручную по описаниям изменений. На базе, отмеченной baseline на V1,
+-- часть из них может уже быть, поэтому каждая команда проверяет, что объекта ещё нет
+
+-- Идентификаторы выдаются блоками по 50 (allocationSize в User); первый блок начинается за последним id
+do $$
+begin
+    if to_regclass('users_seq') is null then
+        create sequence users_seq start with 1 increment by 50;
+        perform setval('users_seq', (select coalesce(max(id), 0) from users) + 50, false);
+    end if;
+end
+$$;
+
+-- Версия для оптимистической блокировки (PATCH и PUT /users/{id})
+alter table users add column if not exists version bigint;
+update users set version = 0 where version is null;
+alter table users alter column version set default 0;
+alter table users alter column version set not null;
+
+-- Транзакционный outbox событий пользователей
+create sequence if not exists user_event_outbox_seq start with 1 increment by 50;
+
+create table if not exists user_event_outbox (
+    created_at    timestamp(6),
+    dispatched_at timestamp(6),
+    id            bigint       not null,
+    user_id       bigint,
+    email         varchar(255),
+    event_type    varchar(255) not null check (event_type in ('USER_CREATED', 'USER_UPDATED', 'USER_DELETED')),
+    name          varchar(255),
+    primary key (id)
+);
+
+create index if not exists idx_user_event_outbox_pending on user_event_outbox (dispatched_at, id);
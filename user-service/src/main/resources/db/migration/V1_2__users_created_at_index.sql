@@ -0,0 +1,3 @@
+-- Постраничная выдача с сортировкой по created_at (keyset). CONCURRENTLY не блокирует запись в users
+-- на время построения, поэтому индекс вынесен в отдельную миграцию, которую Flyway выполняет вне транзакции
+create index concurrently if not exists idx_users_created_at_id on users (created_at, id);
@@ -0,0 +1,12 @@
+-- Схема, которую до Flyway создавали вручную по сущности User.
+-- На существующих базах не выполняется: spring.flyway.baseline-on-migrate отмечает её как применённую,
+-- поэтому всё, что появилось позже, добавляют следующие миграции
+create table users (
+    age        integer,
+    created_at timestamp(6),
+    id         bigint generated by default as identity,
+    updated_at timestamp(6),
+    email      varchar(255) unique,
+    name       varchar(255),
+    primary key (id)
+);
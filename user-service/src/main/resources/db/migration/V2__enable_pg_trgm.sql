@@ -0,0 +1,2 @@
+-- Нужны права на CREATE в базе; на управляемых Postgres расширение обычно разрешено
+create extension if not exists pg_trgm;
@@ -0,0 +1,11 @@
+-- CONCURRENTLY не блокирует запись в users на время построения; Flyway выполняет
+-- такую миграцию вне транзакции
+
+-- Поиск по началу имени: LIKE 'abc%' и сортировка по имени идут по одному индексу
+create index concurrently if not exists idx_users_name_prefix on users ((lower(name) collate "C"), id);
+
+-- Нечёткий поиск: оператор % и упорядочивание по расстоянию <-> (KNN) по GiST
+create index concurrently if not exists idx_users_name_trgm on users using gist (lower(name) gist_trgm_ops);
+
+-- Поиск по почте без учёта регистра
+create index concurrently if not exists idx_users_lower_email on users (lower(email));
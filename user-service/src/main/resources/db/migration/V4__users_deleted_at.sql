@@ -0,0 +1,3 @@
+-- Мягкое удаление: удалённый пользователь остаётся строкой с deleted_at, пока его не удалит UserPurgeJob.
+-- Столбец без значения по умолчанию добавляется без перезаписи таблицы
+alter table users add column deleted_at timestamp(6);
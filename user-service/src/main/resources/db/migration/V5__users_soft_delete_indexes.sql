@@ -0,0 +1,5 @@
+-- Почта уникальна только среди неудалённых пользователей: адрес удалённого можно зарегистрировать снова
+create unique index concurrently if not exists users_email_active_key on users (email) where deleted_at is null;
+
+-- Очистка выбирает давно удалённых по этому индексу; живые строки в него не попадают
+create index concurrently if not exists idx_users_deleted_at on users (deleted_at) where deleted_at is not null;
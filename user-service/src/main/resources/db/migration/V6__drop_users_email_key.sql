@@ -0,0 +1,2 @@
+-- Уникальность почты теперь обеспечивает users_email_active_key
+alter table users drop constraint if exists users_email_key;
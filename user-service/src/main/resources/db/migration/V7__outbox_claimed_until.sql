@@ -0,0 +1,2 @@
+-- Релей забирает события на время отправки: пока claimed_until не истёк, другие реплики их не берут
+alter table user_event_outbox add column claimed_until timestamp(6);
@@ -0,0 +1,4 @@
+-- Релей берёт событие, только если у того же пользователя нет более раннего неотправленного;
+-- проверка идёт по этому индексу, отправленные события в него не попадают
+create index concurrently if not exists idx_user_event_outbox_user_pending
+    on user_event_outbox (user_id, id) where dispatched_at is null;
@@ -0,0 +1,12 @@
+-- Почта становится уникальной без учёта регистра (V10). Среди неудалённых пользователей, чьи адреса
+-- отличаются только регистром, остаётся самый ранний; остальные удаляются мягко, как через DELETE /users/{id},
+-- и их удалит UserPurgeJob
+update users u
+set deleted_at = localtimestamp,
+    version    = u.version + 1
+where u.deleted_at is null
+  and exists (select 1
+              from users o
+              where o.deleted_at is null
+                and lower(o.email) = lower(u.email)
+                and o.id < u.id);
@@ -0,0 +1,29 @@
+package org.example.userservice.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringJUnitConfig({KafkaProducerConfig.class, SimpleMeterRegistry.class})
+@TestPropertySource(properties = {
+        "spring.kafka.bootstrap-servers=localhost:9092",
+        "kafka.producer.max-block-ms=1500"
+})
+class KafkaProducerConfigTest {
+
+    @Autowired
+    private ProducerFactory<String, Object> producerFactory;
+
+    @Test
+    void producerFactory_BoundsSendBlockingByMaxBlockMs() {
+        assertInstanceOf(DefaultKafkaProducerFactory.class, producerFactory);
+        assertEquals(1500L, producerFactory.getConfigurationProperties().get(ProducerConfig.MAX_BLOCK_MS_CONFIG));
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.userservice.consumer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.userservice.config.CacheConfig;
+import org.example.userservice.config.KafkaConsumerConfig;
+import org.example.userservice.config.KafkaProducerConfig;
+import org.example.userservice.dto.UserResponse;
+import org.example.userservice.emailfilter.EmailExistenceFilter;
+import org.example.userservice.event.UserEvent;
+import org.example.userservice.producer.UserEventProducer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Two replicas share one broker: a write published by replica A must evict the entry
+ * cached by replica B.
+ */
+@EmbeddedKafka(partitions = 1, topics = "user-events")
+class UserCacheInvalidationIntegrationTest {
+
+    private ConfigurableApplicationContext replicaA;
+    private ConfigurableApplicationContext replicaB;
+
+    @BeforeEach
+    void setUp(EmbeddedKafkaBroker broker) {
+        replicaA = startReplica(broker);
+        replicaB = startReplica(broker);
+    }
+
+    @AfterEach
+    void tearDown() {
+        replicaA.close();
+        replicaB.close();
+    }
+
+    @Test
+    void userEventFromOneReplica_EvictsCacheOnTheOther() {
+        Cache cacheA = replicaA.getBean(CacheManager.class).getCache(CacheConfig.USERS_CACHE);
+        Cache cacheB = replicaB.getBean(CacheManager.class).getCache(CacheConfig.USERS_CACHE);
+        cacheA.put(1L, UserResponse.builder().userId(1L).email("old@example.com").build());
+        cacheB.put(1L, UserResponse.builder().userId(1L).email("old@example.com").build());
+        cacheB.put(2L, UserResponse.builder().userId(2L).email("other@example.com").build());
+
+        replicaA.getBean(UserEventProducer.class).sendUserEvent(UserEvent.builder()
+                .eventType(UserEvent.EventType.USER_UPDATED)
+                .userId(1L)
+                .email("new@example.com")
+                .name("John Doe")
+                .build());
+
+        await().atMost(10, TimeUnit.SECONDS).untilAsserted(() -> {
+            assertNull(cacheA.get(1L));
+            assertNull(cacheB.get(1L));
+        });
+        assertNotNull(cacheB.get(2L));
+        // Почта, занятая на реплике A, известна и фильтру реплики B
+        verify(replicaB.getBean(EmailExistenceFilter.class)).add("new@example.com");
+    }
+
+    private ConfigurableApplicationContext startReplica(EmbeddedKafkaBroker broker) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ReplicaConfig.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+                        "kafka.topic.user-events=user-events",
+                        "kafka.cache-invalidation.group-id=user-service-cache-" + UUID.randomUUID(),
+                        "spring.cache.cache-names=users")
+                .run();
+
+        context.getBean(KafkaListenerEndpointRegistry.class).getListenerContainers()
+                .forEach(container -> ContainerTestUtils.waitForAssignment(container, broker.getPartitionsPerTopic()));
+        return context;
+    }
+
+    @Configuration
+    @Import({
+            CacheConfig.class,
+            KafkaConsumerConfig.class,
+            KafkaProducerConfig.class,
+            UserEventProducer.class,
+            UserCacheInvalidationListener.class
+    })
+    static class ReplicaConfig {
+
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        public EmailExistenceFilter emailExistenceFilter() {
+            return mock(EmailExistenceFilter.class);
+        }
+    }
+}
\ No newline at end of file
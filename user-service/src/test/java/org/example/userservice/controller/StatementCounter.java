@@ -0,0 +1,90 @@
+package org.example.userservice.controller;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records every JDBC statement the application executes, with its SQL. Wraps the {@link DataSource}
+ * beans, so Hibernate, native queries and Flyway are all seen. A batch counts once: it is one round trip.
+ */
+class StatementCounter implements BeanPostProcessor {
+
+    private final List<String> statements = new CopyOnWriteArrayList<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, (method, result, args) ->
+                    result instanceof Connection connection ? connection(connection) : result);
+        }
+        return bean;
+    }
+
+    void reset() {
+        statements.clear();
+    }
+
+    List<String> statements() {
+        return List.copyOf(statements);
+    }
+
+    private Connection connection(Connection connection) {
+        return proxy(Connection.class, connection, (method, result, args) -> {
+            if (result instanceof CallableStatement statement) {
+                return statement(CallableStatement.class, statement, (String) args[0]);
+            }
+            if (result instanceof PreparedStatement statement) {
+                return statement(PreparedStatement.class, statement, (String) args[0]);
+            }
+            if (result instanceof Statement statement) {
+                return statement(Statement.class, statement, null);
+            }
+            return result;
+        });
+    }
+
+    private <S extends Statement> S statement(Class<S> type, S statement, String preparedSql) {
+        return proxy(type, statement, (method, result, args) -> result, (method, args) -> {
+            if (method.getName().startsWith("execute")) {
+                statements.add(preparedSql != null ? preparedSql
+                        : args != null && args.length > 0 && args[0] instanceof String sql ? sql : "<batch>");
+            }
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, T target, ResultMapper mapper) {
+        return proxy(type, target, mapper, (method, args) -> {
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, ResultMapper mapper, Interceptor before) {
+        return (T) Proxy.newProxyInstance(StatementCounter.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    before.intercept(method, args);
+                    try {
+                        return mapper.map(method, method.invoke(target, args), args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private interface ResultMapper {
+        Object map(Method method, Object result, Object[] args);
+    }
+
+    private interface Interceptor {
+        void intercept(Method method, Object[] args);
+    }
+}
@@ -0,0 +1,207 @@
+package org.example.userservice.controller;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.example.userservice.config.CacheConfig;
+import org.example.userservice.outbox.UserEventOutboxRelay;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Fails when a {@link UserController} operation runs more SQL statements than its budget.
+ * Runs on embedded Postgres with the real migrations, so it needs neither Docker nor network.
+ * Sequence fetches are not counted: one {@code nextval} serves 50 ids.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@EmbeddedKafka(partitions = 1, topics = "user-events")
+@Import(StatementCounter.class)
+class UserControllerStatementBudgetTest {
+
+    private static final EmbeddedPostgres postgres = startPostgres();
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.kafka.bootstrap-servers", () -> System.getProperty("spring.embedded.kafka.brokers"));
+        // Фоновые задачи пишут в базу сами по себе и портили бы подсчёт
+        registry.add("users.purge.cron", () -> "-");
+        registry.add("outbox.cleanup.cron", () -> "-");
+    }
+
+    @MockBean
+    private UserEventOutboxRelay userEventOutboxRelay;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from user_event_outbox");
+        jdbcTemplate.update("delete from users");
+        jdbcTemplate.update("""
+                insert into users (id, name, email, age, created_at, updated_at, version)
+                values (1000001, 'Ann Lee', 'ann@example.com', 30, localtimestamp, localtimestamp, 0),
+                       (1000002, 'Bob Stone', 'bob@example.com', 40, localtimestamp, localtimestamp, 0),
+                       (1000003, 'Carl Moss', 'carl@example.com', 50, localtimestamp, localtimestamp, 0)
+                """);
+        cacheManager.getCache(CacheConfig.USERS_CACHE).clear();
+    }
+
+    @Test
+    void createUser_InsertsUserAndOutboxEvent() throws Exception {
+        assertStatements(2, () -> mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json("Dan Gray", "dan@example.com")))
+                .andExpect(status().isCreated()));
+    }
+
+    @Test
+    void createUsers_BatchesInsertsWhateverTheBatchSize() throws Exception {
+        StringBuilder users = new StringBuilder("[");
+        for (int i = 0; i < 20; i++) {
+            users.append(i > 0 ? "," : "").append(json("User " + i, "batch" + i + "@example.com"));
+        }
+        assertStatements(2, () -> mockMvc.perform(post("/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(users.append("]").toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(20)));
+    }
+
+    @Test
+    void getUserById_OneSelectThenCache() throws Exception {
+        assertStatements(1, () -> mockMvc.perform(get("/users/1000001")).andExpect(status().isOk()));
+        assertStatements(0, () -> mockMvc.perform(get("/users/1000001")).andExpect(status().isOk()));
+    }
+
+    @Test
+    void getUsersByIds_OneSelectForAllMisses() throws Exception {
+        mockMvc.perform(get("/users/1000001")).andExpect(status().isOk());
+
+        assertStatements(1, () -> mockMvc.perform(get("/users").param("ids", "1000003,1000001,1000002,42"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users.length()").value(3))
+                .andExpect(jsonPath("$.missingIds[0]").value(42)));
+    }
+
+    @Test
+    void getAllUsers_OneSelectPerPage() throws Exception {
+        assertStatements(1, () -> mockMvc.perform(get("/users").param("limit", "2"))
+                .andExpect(status().isOk()));
+        assertStatements(2, () -> mockMvc.perform(get("/users")
+                        .param("after", "1000001")
+                        .param("sort", "createdAt"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void searchUsers_AtMostPrefixAndFuzzyQuery() throws Exception {
+        assertStatements(2, () -> mockMvc.perform(get("/users/search").param("q", "ann"))
+                .andExpect(status().isOk()));
+        assertStatements(1, () -> mockMvc.perform(get("/users/search").param("email", "ANN@example.com"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void exportUsers_SingleStreamingSelect() throws Exception {
+        assertStatements(1, () -> {
+            MvcResult result = mockMvc.perform(get("/users/export")).andReturn();
+            mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+        });
+    }
+
+    @Test
+    void updateUser_LoadsUpdatesAndEnqueuesEvent() throws Exception {
+        assertStatements(3, () -> mockMvc.perform(put("/users/1000001")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json("Ann Lee-Smith", "ann.smith@example.com")))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void patchUser_SingleUpdateAndEvent() throws Exception {
+        assertStatements(2, () -> mockMvc.perform(patch("/users/1000001")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"version\": 0, \"age\": 31}"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void deleteUser_SingleUpdateAndEvent() throws Exception {
+        assertStatements(2, () -> mockMvc.perform(delete("/users/1000001"))
+                .andExpect(status().isNoContent()));
+    }
+
+    @Test
+    void deleteUsers_OneUpdateAndOneEventBatch() throws Exception {
+        assertStatements(2, () -> mockMvc.perform(delete("/users").param("ids", "1000001,1000002,1000003"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deletedIds.length()").value(3)));
+    }
+
+    private void assertStatements(int budget, MockMvcCall call) throws Exception {
+        statementCounter.reset();
+        call.perform();
+        List<String> executed = statementCounter.statements().stream()
+                .filter(sql -> !sql.contains("nextval("))
+                .toList();
+        assertTrue(executed.size() <= budget, () -> "Statement budget " + budget + " exceeded, "
+                + executed.size() + " executed:\n" + String.join("\n", executed));
+    }
+
+    @FunctionalInterface
+    private interface MockMvcCall {
+        void perform() throws Exception;
+    }
+
+    private static String json(String name, String email) {
+        return "{\"name\": \"" + name + "\", \"email\": \"" + email + "\", \"age\": 30}";
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,31 +1,50 @@
 package org.example.userservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.userservice.controller.export.UserNdjsonWriter;
 import org.example.userservice.controller.hateoas.UserControllerHateoas;
+import org.example.userservice.dto.UserBatchResponse;
+import org.example.userservice.dto.UserBatchResult;
+import org.example.userservice.dto.UserBulkDeleteResponse;
+import org.example.userservice.dto.UserMultiGetResponse;
+import org.example.userservice.dto.UserPage;
+import org.example.userservice.dto.UserPatchRequest;
 import org.example.userservice.dto.UserRequest;
 import org.example.userservice.dto.UserResponse;
+import org.example.userservice.dto.UserSortField;
 import org.example.userservice.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.Links;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(UserController.class)
+@Import(UserNdjsonWriter.class)
 class UserControllerTest {
 
     @Autowired
@@ -103,6 +122,48 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.errors").exists());
     }
 
+    @Test
+    void createUsers_ShouldReturnPerItemResults() throws Exception {
+        UserBatchResponse batchResponse = UserBatchResponse.builder()
+                .created(1)
+                .failed(1)
+                .results(List.of(
+                        UserBatchResult.builder()
+                                .index(0)
+                                .status(UserBatchResult.Status.CREATED)
+                                .user(userResponse)
+                                .build(),
+                        UserBatchResult.builder()
+                                .index(1)
+                                .status(UserBatchResult.Status.CONFLICT)
+                                .message("Почта уже используется: john@example.com")
+                                .build()))
+                .build();
+        when(userService.createUsers(anyList())).thenReturn(batchResponse);
+
+        mockMvc.perform(post("/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(validUserRequest, validUserRequest))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[0].user.id").value(1L))
+                .andExpect(jsonPath("$.results[1].status").value("CONFLICT"));
+    }
+
+    @Test
+    void createUsers_TooLarge_ShouldReturnBadRequest() throws Exception {
+        when(userService.createUsers(anyList())).thenThrow(
+                new org.example.userservice.exception.BatchSizeExceededException("Too many users")
+        );
+
+        mockMvc.perform(post("/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(validUserRequest))))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getUserById_ShouldReturnUserWithHateoasLinks() throws Exception {
         when(userService.getUserById(1L)).thenReturn(userResponse);
@@ -118,6 +179,55 @@ class UserControllerTest {
                 .andExpect(jsonPath("$._links.users.href").value("http://localhost:8080/users"));
     }
 
+    @Test
+    void getUserById_ShouldReturnETagAndLastModified() throws Exception {
+        userResponse.setVersion(3L);
+        when(userService.getUserById(1L)).thenReturn(userResponse);
+        when(userControllerHateoas.toModel(any(UserResponse.class))).thenReturn(userEntityModel);
+
+        mockMvc.perform(get("/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(header().exists("Last-Modified"));
+    }
+
+    @Test
+    void getUserById_MatchingETag_ShouldReturn304WithoutBody() throws Exception {
+        userResponse.setVersion(3L);
+        when(userService.getUserById(1L)).thenReturn(userResponse);
+
+        mockMvc.perform(get("/users/1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(content().string(""));
+
+        verify(userControllerHateoas, never()).toModel(any(UserResponse.class));
+    }
+
+    @Test
+    void getUserById_StaleETag_ShouldReturnUser() throws Exception {
+        userResponse.setVersion(4L);
+        when(userService.getUserById(1L)).thenReturn(userResponse);
+        when(userControllerHateoas.toModel(any(UserResponse.class))).thenReturn(userEntityModel);
+
+        mockMvc.perform(get("/users/1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+    }
+
+    @Test
+    void getUserById_NotModifiedSince_ShouldReturn304() throws Exception {
+        userResponse.setVersion(null);
+        userResponse.setUpdatedAt(LocalDateTime.now().minusHours(1));
+        when(userService.getUserById(1L)).thenReturn(userResponse);
+
+        mockMvc.perform(get("/users/1").header("If-Modified-Since",
+                        DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC))))
+                .andExpect(status().isNotModified());
+
+        verify(userControllerHateoas, never()).toModel(any(UserResponse.class));
+    }
+
     @Test
     void getAllUsers_ShouldReturnUserListWithHateoas() throws Exception {
         UserResponse userResponse2 = UserResponse.builder()
@@ -143,13 +253,20 @@ class UserControllerTest {
                 Link.of("/users").withRel("users")
         );
 
-        List<UserResponse> users = Arrays.asList(userResponse, userResponse2);
+        UserPage page = UserPage.builder()
+                .users(Arrays.asList(userResponse, userResponse2))
+                .nextCursor(2L)
+                .build();
+
+        CollectionModel<EntityModel<UserResponse>> pageModel = CollectionModel.of(
+                List.of(userEntityModel, userEntityModel2),
+                Link.of("/users?limit=2").withSelfRel(),
+                Link.of("/users?after=2&limit=2").withRel(IanaLinkRelations.NEXT));
 
-        when(userService.getAllUsers()).thenReturn(users);
-        when(userControllerHateoas.toModel(userResponse)).thenReturn(userEntityModel);
-        when(userControllerHateoas.toModel(userResponse2)).thenReturn(userEntityModel2);
+        when(userService.getAllUsers(null, 2, UserSortField.ID)).thenReturn(page);
+        when(userControllerHateoas.toPageModel(page, null, 2, UserSortField.ID)).thenReturn(pageModel);
 
-        mockMvc.perform(get("/users"))
+        mockMvc.perform(get("/users").param("limit", "2"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$._embedded.users.length()").value(2))
                 .andExpect(jsonPath("$._embedded.users[0].id").value(1L))
@@ -158,7 +275,122 @@ class UserControllerTest {
                 .andExpect(jsonPath("$._embedded.users[1].id").value(2L))
                 .andExpect(jsonPath("$._embedded.users[1].name").value("Jane Doe"))
                 .andExpect(jsonPath("$._embedded.users[1]._links.self.href").value("/users/2")) // Проверяем относительный путь
-                .andExpect(jsonPath("$._links.self.href").exists()); // Проверяем относительный путь
+                .andExpect(jsonPath("$._links.self.href").exists()) // Проверяем относительный путь
+                .andExpect(jsonPath("$._links.next.href").value("/users?after=2&limit=2"));
+    }
+
+    @Test
+    void getAllUsers_SortedByCreatedAt_ShouldPassCursorToService() throws Exception {
+        UserPage page = UserPage.builder().users(List.of()).build();
+        when(userService.getAllUsers(5L, 20, UserSortField.CREATED_AT)).thenReturn(page);
+        when(userControllerHateoas.toPageModel(page, 5L, 20, UserSortField.CREATED_AT))
+                .thenReturn(CollectionModel.empty(Link.of("/users?after=5&sort=createdAt").withSelfRel()));
+
+        mockMvc.perform(get("/users").param("after", "5").param("sort", "createdAt"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._links.next").doesNotExist());
+
+        verify(userService, times(1)).getAllUsers(5L, 20, UserSortField.CREATED_AT);
+    }
+
+    @Test
+    void getAllUsers_UnknownSort_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/users").param("sort", "email"))
+                .andExpect(status().isBadRequest());
+
+        verify(userService, never()).getAllUsers(any(), anyInt(), any());
+    }
+
+    @Test
+    void getUsersByIds_ShouldReturnUsersAndMissingIds() throws Exception {
+        when(userService.getUsersByIds(List.of(1L, 7L))).thenReturn(UserMultiGetResponse.builder()
+                .users(List.of(userResponse))
+                .missingIds(List.of(7L))
+                .build());
+
+        mockMvc.perform(get("/users").param("ids", "1,7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users[0].id").value(1L))
+                .andExpect(jsonPath("$.missingIds[0]").value(7L));
+
+        verify(userService, never()).getAllUsers(any(), anyInt(), any());
+    }
+
+    @Test
+    void getUsersByIds_MalformedId_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/users").param("ids", "1,abc"))
+                .andExpect(status().isBadRequest());
+
+        verify(userService, never()).getUsersByIds(any());
+    }
+
+    @Test
+    void searchUsers_ByName_ShouldReturnMatches() throws Exception {
+        List<UserResponse> users = List.of(userResponse);
+        when(userService.searchUsers("john", 5)).thenReturn(users);
+        when(userControllerHateoas.toSearchModel(users)).thenReturn(CollectionModel.of(
+                List.of(userEntityModel), Link.of("/users/search?q=john&limit=5").withSelfRel()));
+
+        mockMvc.perform(get("/users/search").param("q", " john ").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.users[0].id").value(1L))
+                .andExpect(jsonPath("$._links.self.href").value("/users/search?q=john&limit=5"));
+    }
+
+    @Test
+    void searchUsers_ByEmail_ShouldLookUpEmailOnly() throws Exception {
+        when(userService.findUserByEmail("John@Example.com")).thenReturn(Optional.of(userResponse));
+        when(userControllerHateoas.toSearchModel(List.of(userResponse))).thenReturn(CollectionModel.of(
+                List.of(userEntityModel), Link.of("/users/search?email=John@Example.com").withSelfRel()));
+
+        mockMvc.perform(get("/users/search").param("email", "John@Example.com").param("q", "ignored"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.users.length()").value(1));
+
+        verify(userService, never()).searchUsers(anyString(), anyInt());
+    }
+
+    @Test
+    void searchUsers_WithoutQuery_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/users/search"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Не указан параметр: q"));
+
+        verify(userService, never()).searchUsers(anyString(), anyInt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportUsers_ShouldStreamNdjson() throws Exception {
+        UserResponse userResponse2 = UserResponse.builder()
+                .userId(2L)
+                .name("Jane Doe")
+                .email("jane@example.com")
+                .build();
+
+        doAnswer(invocation -> {
+            Consumer<UserResponse> consumer = invocation.getArgument(0);
+            consumer.accept(userResponse);
+            consumer.accept(userResponse2);
+            return null;
+        }).when(userService).exportUsers(any());
+
+        MvcResult result = mockMvc.perform(get("/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"id\":1"));
+        assertTrue(lines[1].contains("\"email\":\"jane@example.com\""));
+        assertFalse(body.contains("links"));
     }
 
     @Test
@@ -199,6 +431,45 @@ class UserControllerTest {
                 .andExpect(jsonPath("$._links.self.href").exists());
     }
 
+    @Test
+    void patchUser_ShouldReturnPatchedUser() throws Exception {
+        UserPatchRequest patchRequest = UserPatchRequest.builder().name("Johnny").version(1L).build();
+        when(userService.patchUser(eq(1L), any(UserPatchRequest.class))).thenReturn(userResponse);
+        when(userControllerHateoas.toModel(any(UserResponse.class))).thenReturn(userEntityModel);
+
+        mockMvc.perform(patch("/users/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(patchRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1L));
+
+        verify(userService).patchUser(1L, patchRequest);
+    }
+
+    @Test
+    void patchUser_StaleVersion_ShouldReturn409() throws Exception {
+        UserPatchRequest patchRequest = UserPatchRequest.builder().age(40).version(1L).build();
+        when(userService.patchUser(eq(1L), any(UserPatchRequest.class))).thenThrow(
+                new org.example.userservice.exception.VersionConflictException("Version is stale"));
+
+        mockMvc.perform(patch("/users/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(patchRequest)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void patchUser_WithoutVersion_ShouldReturn400() throws Exception {
+        UserPatchRequest patchRequest = UserPatchRequest.builder().name("Johnny").build();
+
+        mockMvc.perform(patch("/users/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(patchRequest)))
+                .andExpect(status().isBadRequest());
+
+        verify(userService, never()).patchUser(anyLong(), any());
+    }
+
     @Test
     void deleteUser_ShouldReturnNoContent() throws Exception {
         doNothing().when(userService).deleteUser(1L);
@@ -209,6 +480,19 @@ class UserControllerTest {
         verify(userService, times(1)).deleteUser(1L);
     }
 
+    @Test
+    void deleteUsers_ShouldReturnDeletedAndMissingIds() throws Exception {
+        when(userService.deleteUsers(List.of(1L, 2L, 9L))).thenReturn(UserBulkDeleteResponse.builder()
+                .deletedIds(List.of(1L, 2L))
+                .missingIds(List.of(9L))
+                .build());
+
+        mockMvc.perform(delete("/users").param("ids", "1,2,9"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deletedIds.length()").value(2))
+                .andExpect(jsonPath("$.missingIds[0]").value(9L));
+    }
+
     @Test
     void getUserById_NotFound_ShouldReturn404() throws Exception {
         when(userService.getUserById(999L)).thenThrow(
@@ -230,4 +514,14 @@ class UserControllerTest {
                         .content(objectMapper.writeValueAsString(validUserRequest)))
                 .andExpect(status().isConflict());
     }
+
+    @Test
+    void actuatorOnApplicationPort_ShouldReturn404() throws Exception {
+        // Лимиты меняются только через management-порт
+        mockMvc.perform(post("/actuator/ratelimits")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"writeBurst\":1000}"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value(404));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package org.example.userservice.controller.hateoas;
+
+import org.example.userservice.controller.UserController;
+import org.example.userservice.dto.UserPage;
+import org.example.userservice.dto.UserResponse;
+import org.example.userservice.dto.UserSortField;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+class UserControllerHateoasTest {
+
+    private final UserControllerHateoas assembler = new UserControllerHateoas();
+
+    @BeforeEach
+    void setUp() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users");
+        request.setServerName("api.example.com");
+        request.setServerPort(8443);
+        request.setScheme("https");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void toModel_LinksMatchControllerMappings() {
+        UserResponse user = UserResponse.builder().userId(42L).name("John Doe").build();
+
+        EntityModel<UserResponse> model = assembler.toModel(user);
+
+        assertEquals(linkTo(methodOn(UserController.class).getUserById(42L, null)).toUri().toString(),
+                model.getRequiredLink(IanaLinkRelations.SELF).getHref());
+        assertEquals(linkTo(methodOn(UserController.class).updateUser(42L, null)).toUri().toString(),
+                model.getRequiredLink("update").getHref());
+        assertEquals(linkTo(methodOn(UserController.class).deleteUser(42L)).toUri().toString(),
+                model.getRequiredLink("delete").getHref());
+        assertEquals(linkTo(methodOn(UserController.class).getAllUsers(null, null, null)).toUri().toString(),
+                model.getRequiredLink("users").getHref());
+    }
+
+    @Test
+    void toPageModel_LinksEveryUserAndNextPage() {
+        UserPage page = UserPage.builder()
+                .users(List.of(UserResponse.builder().userId(1L).build(), UserResponse.builder().userId(2L).build()))
+                .nextCursor(2L)
+                .build();
+
+        CollectionModel<EntityModel<UserResponse>> model = assembler.toPageModel(page, null, 2, UserSortField.ID);
+
+        assertEquals(List.of("https://api.example.com:8443/users/1", "https://api.example.com:8443/users/2"),
+                model.getContent().stream()
+                        .map(user -> user.getRequiredLink(IanaLinkRelations.SELF).getHref())
+                        .toList());
+        assertEquals(linkTo(methodOn(UserController.class).getAllUsers(2L, 2, UserSortField.ID)).toUri().toString(),
+                model.getRequiredLink(IanaLinkRelations.NEXT).getHref());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,142 @@
+package org.example.userservice.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replicaA;
+    private DataSource replicaB;
+    private Connection primaryConnection;
+    private Connection replicaAConnection;
+    private Connection replicaBConnection;
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = mock(DataSource.class);
+        replicaA = mock(DataSource.class);
+        replicaB = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        replicaAConnection = mock(Connection.class);
+        replicaBConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replicaA.getConnection()).thenReturn(replicaAConnection);
+        when(replicaB.getConnection()).thenReturn(replicaBConnection);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", replicaA);
+        replicas.put("replica-1", replicaB);
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas, Duration.ofMillis(1000));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReadYourWritesContext.clear();
+    }
+
+    @Test
+    void readWriteTransaction_UsesPrimary() throws SQLException {
+        beginTransaction(false);
+
+        assertSame(primaryConnection, routingDataSource.getConnection());
+        verifyNoInteractions(replicaA, replicaB);
+    }
+
+    @Test
+    void noTransaction_UsesPrimary() throws SQLException {
+        assertSame(primaryConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    void readOnlyTransactions_AlternateBetweenReplicas() throws SQLException {
+        beginTransaction(true);
+
+        assertSame(replicaAConnection, routingDataSource.getConnection());
+        assertSame(replicaBConnection, routingDataSource.getConnection());
+        assertSame(replicaAConnection, routingDataSource.getConnection());
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    void readOnlyTransaction_PinnedAfterOwnWrite_UsesPrimary() throws SQLException {
+        beginTransaction(true);
+        ReadYourWritesContext.pinToPrimary();
+
+        assertSame(primaryConnection, routingDataSource.getConnection());
+        verifyNoInteractions(replicaA, replicaB);
+    }
+
+    @Test
+    void refusingReplica_IsRemovedAndReadFallsBackToPrimary() throws SQLException {
+        when(replicaA.getConnection()).thenThrow(new SQLException("Connection refused"));
+        beginTransaction(true);
+
+        assertSame(primaryConnection, routingDataSource.getConnection());
+        assertEquals(1, routingDataSource.healthyReplicaCount());
+        assertSame(replicaBConnection, routingDataSource.getConnection());
+        assertSame(replicaBConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    void noHealthyReplica_ReadsFromPrimary() throws SQLException {
+        when(replicaA.getConnection()).thenThrow(new SQLException("Connection refused"));
+        when(replicaB.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        routingDataSource.checkReplicas();
+        beginTransaction(true);
+
+        assertEquals(0, routingDataSource.healthyReplicaCount());
+        assertSame(primaryConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    void checkReplicas_LaggingReplicaLeavesAndRejoinsRotation() throws SQLException {
+        ResultSet lagA = lagResult(replicaAConnection);
+        lagResult(replicaBConnection);
+        when(lagA.getDouble(1)).thenReturn(5.0);
+
+        routingDataSource.checkReplicas();
+        beginTransaction(true);
+
+        assertEquals(1, routingDataSource.healthyReplicaCount());
+        assertSame(replicaBConnection, routingDataSource.getConnection());
+
+        when(lagA.getDouble(1)).thenReturn(0.2);
+        routingDataSource.checkReplicas();
+
+        assertEquals(2, routingDataSource.healthyReplicaCount());
+    }
+
+    private static ResultSet lagResult(Connection connection) throws SQLException {
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        return resultSet;
+    }
+
+    private static void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+}
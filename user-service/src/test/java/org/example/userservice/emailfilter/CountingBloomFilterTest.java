@@ -0,0 +1,51 @@
+package org.example.userservice.emailfilter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountingBloomFilterTest {
+
+    @Test
+    void mightContain_HasNoFalseNegatives() {
+        CountingBloomFilter filter = new CountingBloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.add("user" + i + "@example.com"));
+
+        IntStream.range(0, 10_000).forEach(i -> assertTrue(filter.mightContain("user" + i + "@example.com")));
+    }
+
+    @Test
+    void mightContain_FalsePositiveRateStaysNearTarget() {
+        CountingBloomFilter filter = new CountingBloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.add("user" + i + "@example.com"));
+
+        long falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> filter.mightContain("other" + i + "@example.com"))
+                .count();
+
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+        assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.002);
+    }
+
+    @Test
+    void remove_ForgetsEntryButKeepsOthers() {
+        CountingBloomFilter filter = new CountingBloomFilter(1_000, 0.01);
+        filter.add("john@example.com");
+        filter.add("jane@example.com");
+
+        filter.remove("john@example.com");
+
+        assertFalse(filter.mightContain("john@example.com"));
+        assertTrue(filter.mightContain("jane@example.com"));
+        assertEquals(1, filter.entries());
+    }
+
+    @Test
+    void memoryBytes_UsesFourBitsPerCounter() {
+        CountingBloomFilter filter = new CountingBloomFilter(1_000_000, 0.01);
+
+        assertTrue(filter.memoryBytes() < 5 * 1024 * 1024, "memory: " + filter.memoryBytes());
+    }
+}
\ No newline at end of file
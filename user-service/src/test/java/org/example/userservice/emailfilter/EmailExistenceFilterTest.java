@@ -0,0 +1,71 @@
+package org.example.userservice.emailfilter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.userservice.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EmailExistenceFilterTest {
+
+    private UserRepository userRepository;
+    private EmailExistenceFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        filter = new EmailExistenceFilter(userRepository, new SimpleMeterRegistry(), 1_000, 0.01);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void remove_AppliedOnlyAfterCommit() {
+        warmUpWith("john@example.com");
+        TransactionSynchronizationManager.initSynchronization();
+
+        filter.remove("john@example.com");
+        assertTrue(filter.mightExist("john@example.com"));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertFalse(filter.mightExist("john@example.com"));
+    }
+
+    @Test
+    void remove_RolledBackDeleteKeepsEmail() {
+        warmUpWith("john@example.com");
+        TransactionSynchronizationManager.initSynchronization();
+
+        filter.remove("john@example.com");
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertTrue(filter.mightExist("john@example.com"));
+    }
+
+    @Test
+    void remove_IgnoredBeforeWarmUp() {
+        filter.add("john@example.com");
+        filter.remove("john@example.com");
+
+        warmUpWith();
+        assertTrue(filter.mightExist("john@example.com"));
+    }
+
+    private void warmUpWith(String... emails) {
+        when(userRepository.streamAllEmails()).thenReturn(Stream.of(emails));
+        filter.warmUp();
+    }
+}
@@ -0,0 +1,164 @@
+package org.example.userservice.outbox;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.example.userservice.entity.OutboxEvent;
+import org.example.userservice.event.UserEvent;
+import org.example.userservice.producer.UserEventProducer;
+import org.example.userservice.repository.OutboxEventRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Two relays, as on two replicas, draining one outbox on embedded Postgres: each user's events
+ * must reach Kafka in outbox order whichever relay sends them and whatever fails in between.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserEventOutboxRelayOrderingTest {
+
+    private static final EmbeddedPostgres postgres = startPostgres();
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<UserEvent> sent = Collections.synchronizedList(new ArrayList<>());
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAllInBatch();
+        outboxEventRepository.saveAll(List.of(
+                outboxEvent(UserEvent.EventType.USER_CREATED, 1L),
+                outboxEvent(UserEvent.EventType.USER_DELETED, 1L),
+                outboxEvent(UserEvent.EventType.USER_CREATED, 2L)));
+    }
+
+    @Test
+    void secondRelay_DoesNotOvertakeEventInFlightOnFirst() throws Exception {
+        CompletableFuture<SendResult<String, Object>> firstSend = new CompletableFuture<>();
+        CountDownLatch firstSendStarted = new CountDownLatch(1);
+        UserEventProducer slowProducer = mock(UserEventProducer.class);
+        when(slowProducer.sendUserEvent(any())).thenAnswer(invocation -> {
+            UserEvent event = invocation.getArgument(0);
+            sent.add(event);
+            if (event.getUserId() == 1L) {
+                firstSendStarted.countDown();
+                return firstSend;
+            }
+            return CompletableFuture.completedFuture(null);
+        });
+        UserEventOutboxRelay relayA = relay(slowProducer);
+        UserEventOutboxRelay relayB = relay(acknowledgingProducer());
+
+        CompletableFuture<Integer> runA = CompletableFuture.supplyAsync(relayA::relay);
+        assertTrue(firstSendStarted.await(10, TimeUnit.SECONDS));
+
+        // Пока USER_CREATED пользователя 1 в полёте у A, его USER_DELETED не берёт никто
+        assertEquals(0, relayB.relay());
+        firstSend.complete(null);
+        assertEquals(2, runA.get(10, TimeUnit.SECONDS));
+
+        assertEquals(1, relayB.relay());
+        assertEquals(List.of(UserEvent.EventType.USER_CREATED, UserEvent.EventType.USER_DELETED), sentFor(1L));
+        assertEquals(0, outboxEventRepository.findAll().stream().filter(e -> e.getDispatchedAt() == null).count());
+    }
+
+    @Test
+    void releasedEvent_IsResentBeforeLaterEventsOfSameUser() {
+        UserEventProducer failingProducer = mock(UserEventProducer.class);
+        when(failingProducer.sendUserEvent(any())).thenAnswer(invocation -> {
+            UserEvent event = invocation.getArgument(0);
+            sent.add(event);
+            return event.getUserId() == 1L
+                    ? CompletableFuture.failedFuture(new KafkaException("broker unavailable"))
+                    : CompletableFuture.completedFuture(null);
+        });
+        UserEventOutboxRelay relayA = relay(failingProducer);
+        UserEventOutboxRelay relayB = relay(acknowledgingProducer());
+
+        assertEquals(1, relayA.relay());
+        assertEquals(1, relayB.relay());
+        assertEquals(1, relayB.relay());
+
+        assertEquals(List.of(UserEvent.EventType.USER_CREATED, UserEvent.EventType.USER_CREATED,
+                UserEvent.EventType.USER_DELETED), sentFor(1L));
+    }
+
+    private UserEventOutboxRelay relay(UserEventProducer producer) {
+        return new UserEventOutboxRelay(outboxEventRepository, producer, transactionManager);
+    }
+
+    private UserEventProducer acknowledgingProducer() {
+        UserEventProducer producer = mock(UserEventProducer.class);
+        when(producer.sendUserEvent(any())).thenAnswer(invocation -> {
+            sent.add(invocation.getArgument(0));
+            return CompletableFuture.completedFuture(null);
+        });
+        return producer;
+    }
+
+    private List<UserEvent.EventType> sentFor(Long userId) {
+        synchronized (sent) {
+            return sent.stream()
+                    .filter(event -> userId.equals(event.getUserId()))
+                    .map(UserEvent::getEventType)
+                    .toList();
+        }
+    }
+
+    private static OutboxEvent outboxEvent(UserEvent.EventType eventType, Long userId) {
+        return OutboxEvent.builder()
+                .eventType(eventType)
+                .userId(userId)
+                .email("user" + userId + "@example.com")
+                .name("User " + userId)
+                .build();
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.example.userservice.outbox;
+
+import org.example.userservice.entity.OutboxEvent;
+import org.example.userservice.event.UserEvent;
+import org.example.userservice.producer.UserEventProducer;
+import org.example.userservice.repository.OutboxEventRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.KafkaException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserEventOutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private UserEventProducer userEventProducer;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private UserEventOutboxRelay relay;
+
+    @Test
+    void relay_MarksOnlyAcknowledgedEventsAsDispatched() {
+        OutboxEvent acknowledged = outboxEvent(1L, 1L);
+        OutboxEvent rejected = outboxEvent(2L, 2L);
+        when(outboxEventRepository.findClaimableForUpdate(any(), eq(Limit.of(500))))
+                .thenReturn(List.of(acknowledged, rejected));
+        when(userEventProducer.sendUserEvent(argThat(event -> event != null && event.getUserId() == 1L)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        when(userEventProducer.sendUserEvent(argThat(event -> event != null && event.getUserId() == 2L)))
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("broker unavailable")));
+
+        int dispatched = relay.relay();
+
+        assertEquals(1, dispatched);
+        assertNotNull(acknowledged.getClaimedUntil());
+        verify(outboxEventRepository).markDispatched(eq(List.of(1L)), any());
+        verify(outboxEventRepository).releaseClaims(List.of(2L));
+    }
+
+    @Test
+    void relay_ClaimsInShortTransactionAndSendsAfterCommit() {
+        OutboxEvent event = outboxEvent(1L, 1L);
+        when(outboxEventRepository.findClaimableForUpdate(any(), any(Limit.class))).thenReturn(List.of(event));
+        when(userEventProducer.sendUserEvent(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        relay.relay();
+
+        InOrder inOrder = inOrder(transactionManager, userEventProducer, outboxEventRepository);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(outboxEventRepository).findClaimableForUpdate(any(), any(Limit.class));
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(userEventProducer).sendUserEvent(any());
+        inOrder.verify(outboxEventRepository).markDispatched(eq(List.of(1L)), any());
+    }
+
+    @Test
+    void relay_WaitsForWholeBatchAtMostOneTimeout() {
+        ReflectionTestUtils.setField(relay, "sendTimeoutMs", 200L);
+        when(outboxEventRepository.findClaimableForUpdate(any(), any(Limit.class)))
+                .thenReturn(List.of(outboxEvent(1L, 1L), outboxEvent(2L, 2L), outboxEvent(3L, 3L)));
+        when(userEventProducer.sendUserEvent(any())).thenReturn(new CompletableFuture<>());
+
+        long started = System.nanoTime();
+        assertEquals(0, relay.relay());
+
+        assertTrue(System.nanoTime() - started < TimeUnit.MILLISECONDS.toNanos(550));
+        verify(outboxEventRepository).releaseClaims(List.of(1L, 2L, 3L));
+        verify(outboxEventRepository, never()).markDispatched(any(), any());
+    }
+
+    @Test
+    void relay_NothingPending_DoesNotSend() {
+        when(outboxEventRepository.findClaimableForUpdate(any(), any(Limit.class))).thenReturn(List.of());
+
+        assertEquals(0, relay.relay());
+        verifyNoInteractions(userEventProducer);
+    }
+
+    private OutboxEvent outboxEvent(Long id, Long userId) {
+        return OutboxEvent.builder()
+                .id(id)
+                .eventType(UserEvent.EventType.USER_CREATED)
+                .userId(userId)
+                .email("user" + userId + "@example.com")
+                .name("User " + userId)
+                .build();
+    }
+}
\ No newline at end of file
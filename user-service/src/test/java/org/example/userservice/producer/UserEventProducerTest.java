@@ -0,0 +1,88 @@
+package org.example.userservice.producer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.userservice.event.UserEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserEventProducerTest {
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserEventProducer producer;
+    private UserEvent event;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        producer = new UserEventProducer(kafkaTemplate, meterRegistry, 1, 10);
+        event = UserEvent.builder()
+                .eventType(UserEvent.EventType.USER_CREATED)
+                .userId(1L)
+                .email("john@example.com")
+                .name("John Doe")
+                .build();
+    }
+
+    @Test
+    void sendUserEvent_Acknowledged_RecordsAckLatency() {
+        when(kafkaTemplate.send(any(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        CompletableFuture<SendResult<String, Object>> future = producer.sendUserEvent(event);
+
+        assertFalse(future.isCompletedExceptionally());
+        assertEquals(1, meterRegistry.get("user.events.ack.latency").timer().count());
+        assertEquals(0, meterRegistry.get("user.events.in.flight").gauge().value());
+    }
+
+    @Test
+    void sendUserEvent_KeysRecordByUserId() {
+        when(kafkaTemplate.send(any(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        producer.sendUserEvent(event);
+
+        verify(kafkaTemplate).send(any(), eq("1"), eq(event));
+    }
+
+    @Test
+    void sendUserEvent_Failed_CountsFailureAndReleasesSlot() {
+        when(kafkaTemplate.send(any(), any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("broker unavailable")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        assertTrue(producer.sendUserEvent(event).isCompletedExceptionally());
+        assertFalse(producer.sendUserEvent(event).isCompletedExceptionally());
+        assertEquals(1.0, meterRegistry.get("user.events.send.failures").counter().count());
+    }
+
+    @Test
+    void sendUserEvent_TooManyUnacknowledged_RejectsInsteadOfBuffering() {
+        when(kafkaTemplate.send(any(), any(), any())).thenReturn(new CompletableFuture<>());
+
+        producer.sendUserEvent(event);
+        CompletableFuture<SendResult<String, Object>> rejected = producer.sendUserEvent(event);
+
+        assertTrue(rejected.isCompletedExceptionally());
+        assertEquals(1, meterRegistry.get("user.events.in.flight").gauge().value());
+        verify(kafkaTemplate, times(1)).send(any(), any(), any());
+        assertInstanceOf(RejectedExecutionException.class,
+                assertThrows(Exception.class, rejected::get).getCause());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,44 @@
+package org.example.userservice.purge;
+
+import org.example.userservice.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserPurgeJobTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private UserPurgeJob purgeJob;
+
+    @Test
+    void purge_DeletesBatchesUntilOneIsNotFull() {
+        when(userRepository.purgeDeletedBefore(any(LocalDateTime.class), eq(500))).thenReturn(500, 120);
+
+        assertEquals(620, purgeJob.purge());
+        verify(userRepository, times(2)).purgeDeletedBefore(any(LocalDateTime.class), eq(500));
+    }
+
+    @Test
+    void purge_KeepsTombstonesForRetentionPeriod() {
+        LocalDateTime startedAt = LocalDateTime.now();
+
+        assertEquals(0, purgeJob.purge());
+        verify(userRepository).purgeDeletedBefore(
+                argThat(before -> !before.isBefore(startedAt.minusHours(168))
+                        && before.isBefore(startedAt.minusHours(167))), eq(500));
+    }
+}
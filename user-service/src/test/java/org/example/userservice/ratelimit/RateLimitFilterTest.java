@@ -0,0 +1,135 @@
+package org.example.userservice.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Пополнение раз в ~17 минут: за время теста ведро не восстанавливается
+        filter = new RateLimitFilter(new RateLimitSettings(2, 0.001, 1, 0.001, 10), "X-API-Key",
+                Set.of("client-a", "client-b"), 1_000, Duration.ofMinutes(10), new ObjectMapper().registerModule(new JavaTimeModule()),
+                meterRegistry);
+    }
+
+    @Test
+    void readsOverBurst_Get429WithRetryAfter() throws Exception {
+        assertEquals(200, perform(request("GET", "client-a")).getStatus());
+        assertEquals(200, perform(request("GET", "client-a")).getStatus());
+
+        MockHttpServletResponse rejected = perform(request("GET", "client-a"));
+
+        assertEquals(429, rejected.getStatus());
+        assertTrue(Long.parseLong(rejected.getHeader("Retry-After")) >= 999);
+        assertTrue(rejected.getContentAsString().contains("\"status\":429"));
+        assertEquals(1, meterRegistry.get("users.rate.limit.rejected").tag("reason", "read").counter().count());
+    }
+
+    @Test
+    void readsAndWrites_HaveSeparateBudgets() throws Exception {
+        assertEquals(200, perform(request("POST", "client-a")).getStatus());
+        assertEquals(429, perform(request("DELETE", "client-a")).getStatus());
+
+        assertEquals(200, perform(request("GET", "client-a")).getStatus());
+    }
+
+    @Test
+    void clients_AreLimitedIndependently() throws Exception {
+        assertEquals(200, perform(request("POST", "client-a")).getStatus());
+        assertEquals(429, perform(request("POST", "client-a")).getStatus());
+
+        assertEquals(200, perform(request("POST", "client-b")).getStatus());
+        assertEquals(200, perform(request("POST", null)).getStatus());
+    }
+
+    @Test
+    void unknownApiKeys_AreLimitedByRemoteAddress() throws Exception {
+        assertEquals(200, perform(request("POST", "rotated-1")).getStatus());
+        assertEquals(429, perform(request("POST", "rotated-2")).getStatus());
+        assertEquals(429, perform(request("POST", null)).getStatus());
+
+        assertEquals(200, perform(request("POST", "client-a")).getStatus());
+    }
+
+    @Test
+    void setSettings_AppliesWithoutRestart() throws Exception {
+        assertEquals(200, perform(request("POST", "client-a")).getStatus());
+        assertEquals(429, perform(request("POST", "client-a")).getStatus());
+
+        filter.setSettings(new RateLimitSettings(2, 0.001, 2, 0.001, 10));
+
+        assertEquals(200, perform(request("POST", "client-a")).getStatus());
+    }
+
+    @Test
+    void requestsOverConcurrencyLimit_AreShedWith503() throws Exception {
+        filter.setSettings(new RateLimitSettings(10, 0.001, 10, 0.001, 1));
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+        FilterChain chain = (request, response) -> nested[0] = perform(request("GET", "client-b"));
+
+        filter.doFilter(request("GET", "client-a"), new MockHttpServletResponse(), chain);
+
+        assertEquals(503, nested[0].getStatus());
+        assertEquals("1", nested[0].getHeader("Retry-After"));
+        assertEquals(200, perform(request("GET", "client-b")).getStatus());
+    }
+
+    @Test
+    void asyncRequest_HoldsSlotUntilCompleted() throws Exception {
+        MockHttpServletRequest request = request("GET", "client-a");
+        request.setAsyncSupported(true);
+        AtomicInteger started = new AtomicInteger();
+        FilterChain chain = (req, res) -> {
+            req.startAsync();
+            started.incrementAndGet();
+        };
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertEquals(1, started.get());
+        assertEquals(1, meterRegistry.get("users.rate.limit.in.flight").gauge().value());
+        request.getAsyncContext().complete();
+        assertEquals(0, meterRegistry.get("users.rate.limit.in.flight").gauge().value());
+    }
+
+    @Test
+    void settings_RejectNonPositiveLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimitSettings(0, 1, 1, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimitSettings(1, 0, 1, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimitSettings(1, 1, 1, 1, 0));
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request) throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String apiKey) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/users");
+        if (apiKey != null) {
+            request.addHeader("X-API-Key", apiKey);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.userservice.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tryAcquire_AdmitsBurstThenReportsWait() {
+        TokenBucket bucket = new TokenBucket(0);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(0, 10, 5));
+        }
+
+        long waitNanos = bucket.tryAcquire(0, 10, 5);
+        assertEquals(SECOND / 10, waitNanos);
+    }
+
+    @Test
+    void tryAcquire_RefillsAtRate() {
+        TokenBucket bucket = new TokenBucket(0);
+        for (int i = 0; i < 5; i++) {
+            bucket.tryAcquire(0, 10, 5);
+        }
+
+        assertEquals(0, bucket.tryAcquire(SECOND / 10, 10, 5));
+        assertTrue(bucket.tryAcquire(SECOND / 10, 10, 5) > 0);
+    }
+
+    @Test
+    void tryAcquire_IdleBucketDoesNotExceedBurst() {
+        TokenBucket bucket = new TokenBucket(0);
+        long later = 60 * SECOND;
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(later, 10, 5));
+        }
+        assertTrue(bucket.tryAcquire(later, 10, 5) > 0);
+    }
+
+    @Test
+    void tryAcquire_AppliesNewLimitsToExistingBucket() {
+        TokenBucket bucket = new TokenBucket(0);
+        assertEquals(0, bucket.tryAcquire(0, 10, 1));
+        assertTrue(bucket.tryAcquire(0, 10, 1) > 0);
+
+        assertEquals(0, bucket.tryAcquire(0, 10, 3));
+    }
+}
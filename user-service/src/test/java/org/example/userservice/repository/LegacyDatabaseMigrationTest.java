@@ -0,0 +1,114 @@
+package org.example.userservice.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.example.userservice.entity.OutboxEvent;
+import org.example.userservice.entity.User;
+import org.example.userservice.event.UserEvent;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A database created before Flyway, with only the original {@code users} table and data in it,
+ * is baselined at V1: the later migrations must still bring it to the schema the entities validate against.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class LegacyDatabaseMigrationTest {
+
+    private static final EmbeddedPostgres postgres = startLegacyPostgres();
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    void baselinedDatabase_GetsSequenceVersionAndOutbox() {
+        assertEquals(0L, userRepository.findById(1000L).orElseThrow().getVersion());
+        assertEquals("0", jdbcTemplate.queryForObject(
+                "select column_default from information_schema.columns "
+                        + "where table_name = 'users' and column_name = 'version'", String.class));
+
+        User user = userRepository.saveAndFlush(User.builder().name("New User").email("new@example.com").build());
+        assertTrue(user.getId() > 1000L);
+
+        OutboxEvent event = outboxEventRepository.saveAndFlush(OutboxEvent.builder()
+                .eventType(UserEvent.EventType.USER_CREATED)
+                .userId(user.getId())
+                .build());
+        assertNotNull(event.getId());
+    }
+
+    @Test
+    void emailsDifferingOnlyInCase_KeepOldestAndStayUnique() {
+        assertEquals(1001L, userRepository.findByEmail("CASE@example.com").orElseThrow().getId());
+        assertEquals(Boolean.TRUE, jdbcTemplate.queryForObject(
+                "select deleted_at is not null from users where id = 1002", Boolean.class));
+
+        assertThrows(DataIntegrityViolationException.class, () -> userRepository.saveAndFlush(
+                User.builder().name("Case Again").email("case@EXAMPLE.com").build()));
+    }
+
+    private static EmbeddedPostgres startLegacyPostgres() {
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+            // Так выглядела база до Flyway: таблица, созданная по исходной сущности User, и данные в ней
+            try (Connection connection = postgres.getPostgresDatabase().getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("""
+                        create table users (
+                            age        integer,
+                            created_at timestamp(6),
+                            id         bigint generated by default as identity,
+                            updated_at timestamp(6),
+                            email      varchar(255) unique,
+                            name       varchar(255),
+                            primary key (id)
+                        )
+                        """);
+                statement.execute("""
+                        insert into users (id, name, email, age, created_at, updated_at)
+                        values (1000, 'Old User', 'old@example.com', 40, localtimestamp, localtimestamp),
+                               (1001, 'Case User', 'Case@example.com', 30, localtimestamp, localtimestamp),
+                               (1002, 'Case Copy', 'case@example.com', 31, localtimestamp, localtimestamp)
+                        """);
+            }
+            return postgres;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package org.example.userservice.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.example.userservice.config.CacheConfig;
+import org.example.userservice.dto.UserMultiGetResponse;
+import org.example.userservice.dto.UserRequest;
+import org.example.userservice.dto.UserResponse;
+import org.example.userservice.emailfilter.EmailExistenceFilter;
+import org.example.userservice.entity.User;
+import org.example.userservice.exception.ResourceNotFoundException;
+import org.example.userservice.mapper.UserMapper;
+import org.example.userservice.outbox.UserEventOutbox;
+import org.example.userservice.repository.UserRepository;
+import org.example.userservice.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig({UserServiceImpl.class, CacheConfig.class, SimpleMeterRegistry.class})
+@TestPropertySource(properties = {
+        "spring.cache.cache-names=users",
+        "spring.cache.caffeine.spec=maximumSize=100,expireAfterWrite=1m,recordStats"
+})
+class UserServiceCacheTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @MockBean
+    private UserMapper userMapper;
+
+    @MockBean
+    private UserEventOutbox userEventOutbox;
+
+    @MockBean
+    private EntityManager entityManager;
+
+    @MockBean
+    private Validator validator;
+
+    @MockBean
+    private EmailExistenceFilter emailExistenceFilter;
+
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.USERS_CACHE).clear();
+
+        user = User.builder()
+                .id(1L)
+                .name("John Doe")
+                .email("john@example.com")
+                .age(30)
+                .build();
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userRepository.softDeleteAllByIdReturning(List.of(1L))).thenReturn(List.of(user));
+        when(userMapper.toResponse(any(User.class))).thenAnswer(invocation -> UserResponse.builder()
+                .userId(((User) invocation.getArgument(0)).getId())
+                .email(((User) invocation.getArgument(0)).getEmail())
+                .build());
+    }
+
+    @Test
+    void getUserById_SecondCallServedFromCache() {
+        UserResponse first = userService.getUserById(1L);
+        UserResponse second = userService.getUserById(1L);
+
+        assertSame(first, second);
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void getUserById_ConcurrentMissesForMissingUserShareOneQuery() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findById(42L)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.empty();
+        });
+        double coalescedBefore = coalesced();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<UserResponse>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> userService.getUserById(42L)));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (coalesced() - coalescedBefore < 3 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            // 404 не кэшируется, но все одновременные запросы получают его от одной загрузки
+            for (Future<UserResponse> result : results) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(ResourceNotFoundException.class, e.getCause());
+            }
+            verify(userRepository, times(1)).findById(42L);
+            assertEquals(3, coalesced() - coalescedBefore);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private double coalesced() {
+        return meterRegistry.get("users.single.flight.coalesced").counter().count();
+    }
+
+    @Test
+    void getUsersByIds_FetchesOnlyCacheMisses() {
+        UserResponse cached = userService.getUserById(1L);
+        User second = User.builder().id(2L).name("Jane Doe").email("jane@example.com").build();
+        when(userRepository.findAllById(List.of(3L, 2L))).thenReturn(List.of(second));
+
+        UserMultiGetResponse result = userService.getUsersByIds(List.of(3L, 1L, 2L, 1L));
+
+        assertEquals(2, result.getUsers().size());
+        assertSame(cached, result.getUsers().get(0));
+        assertEquals(2L, result.getUsers().get(1).getUserId());
+        assertEquals(List.of(3L), result.getMissingIds());
+
+        // найденный в базе пользователь попал в кэш
+        userService.getUserById(2L);
+        verify(userRepository, never()).findById(2L);
+    }
+
+    @Test
+    void updateUser_EvictsCachedUser() {
+        userService.getUserById(1L);
+
+        userService.updateUser(1L, UserRequest.builder()
+                .name("John Doe")
+                .email("john@example.com")
+                .age(31)
+                .build());
+        userService.getUserById(1L);
+
+        // одно чтение до обновления, одно внутри updateUser и одно после вытеснения
+        verify(userRepository, times(3)).findById(1L);
+    }
+
+    @Test
+    void deleteUser_EvictsCachedUser() {
+        userService.getUserById(1L);
+
+        userService.deleteUser(1L);
+
+        assertNull(cacheManager.getCache(CacheConfig.USERS_CACHE).get(1L));
+    }
+
+    @Test
+    void deleteUsers_EvictsCachedUsers() {
+        userService.getUserById(1L);
+
+        userService.deleteUsers(List.of(1L));
+
+        assertNull(cacheManager.getCache(CacheConfig.USERS_CACHE).get(1L));
+    }
+}
@@ -1,23 +1,63 @@
 package org.example.userservice.service.impl;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.example.userservice.config.CacheConfig;
+import org.example.userservice.datasource.ReadYourWritesContext;
+import org.example.userservice.dto.UserBatchResponse;
+import org.example.userservice.dto.UserBatchResult;
+import org.example.userservice.dto.UserBulkDeleteResponse;
+import org.example.userservice.dto.UserMultiGetResponse;
+import org.example.userservice.dto.UserPage;
+import org.example.userservice.dto.UserPatchRequest;
 import org.example.userservice.dto.UserRequest;
 import org.example.userservice.dto.UserResponse;
+import org.example.userservice.dto.UserSortField;
+import org.example.userservice.emailfilter.EmailExistenceFilter;
 import org.example.userservice.entity.User;
+import org.example.userservice.event.UserEvent;
+import org.example.userservice.exception.BatchSizeExceededException;
 import org.example.userservice.exception.DuplicateEmailException;
 import org.example.userservice.exception.ResourceNotFoundException;
+import org.example.userservice.exception.VersionConflictException;
 import org.example.userservice.mapper.UserMapper;
+import org.example.userservice.outbox.UserEventOutbox;
 import org.example.userservice.repository.UserRepository;
+import org.example.userservice.singleflight.SingleFlight;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -32,6 +72,28 @@ class UserServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private UserEventOutbox userEventOutbox;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private EmailExistenceFilter emailExistenceFilter;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private SingleFlight<Long, UserResponse> userLoads =
+            new SingleFlight<>("getUserById", Duration.ofSeconds(5), new SimpleMeterRegistry());
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -41,6 +103,10 @@ class UserServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(emailExistenceFilter.exists(anyString(), any()))
+                .thenAnswer(invocation -> invocation.<BooleanSupplier>getArgument(1).getAsBoolean());
+        lenient().when(emailExistenceFilter.mightExist(anyString())).thenReturn(true);
+
         userRequest = UserRequest.builder()
                 .name("John Doe")
                 .email("john@example.com")
@@ -79,6 +145,8 @@ class UserServiceTest {
         assertEquals(userRequest.getName(), result.getName());
         assertEquals(userRequest.getEmail(), result.getEmail());
         verify(userRepository, times(1)).save(any(User.class));
+        verify(userEventOutbox, times(1)).enqueue(
+                argThat(event -> event.getEventType() == UserEvent.EventType.USER_CREATED));
     }
 
     @Test
@@ -89,6 +157,111 @@ class UserServiceTest {
                 () -> userService.createUser(userRequest));
     }
 
+    @Test
+    void createUser_FilterRulesEmailOut_SkipsExistsQuery() {
+        when(emailExistenceFilter.exists(eq("john@example.com"), any())).thenReturn(false);
+        when(userMapper.toEntity(any(UserRequest.class))).thenReturn(user);
+        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userMapper.toResponse(any(User.class))).thenReturn(userResponse);
+
+        userService.createUser(userRequest);
+
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(emailExistenceFilter).add("john@example.com");
+    }
+
+    @Test
+    void createUser_UniqueConstraintViolated_ThrowsDuplicateEmail() {
+        when(emailExistenceFilter.exists(eq("john@example.com"), any())).thenReturn(false);
+        when(userMapper.toEntity(any(UserRequest.class))).thenReturn(user);
+        when(userRepository.save(any(User.class))).thenReturn(user);
+        doThrow(new DataIntegrityViolationException("duplicate key", new ConstraintViolationException(
+                "duplicate key", new SQLException("duplicate key", "23505"), "users_email_key")))
+                .when(userRepository).flush();
+
+        assertThrows(DuplicateEmailException.class, () -> userService.createUser(userRequest));
+        verify(emailExistenceFilter, never()).add(anyString());
+        verify(userEventOutbox, never()).enqueue(any());
+    }
+
+    @Test
+    void createUsers_ReportsCreatedConflictAndInvalidPerItem() {
+        UserRequest duplicateInBatch = UserRequest.builder()
+                .name("John Again")
+                .email("john@example.com")
+                .age(40)
+                .build();
+        UserRequest existing = UserRequest.builder()
+                .name("Existing User")
+                .email("existing@example.com")
+                .age(20)
+                .build();
+        UserRequest invalid = UserRequest.builder()
+                .name("")
+                .email("invalid-email")
+                .age(200)
+                .build();
+
+        when(userRepository.findExistingEmails(List.of("john@example.com", "existing@example.com")))
+                .thenReturn(Set.of("existing@example.com"));
+        when(userMapper.toEntity(userRequest)).thenReturn(user);
+        when(userRepository.saveAll(List.of(user))).thenReturn(List.of(user));
+        when(userMapper.toResponse(user)).thenReturn(userResponse);
+
+        UserBatchResponse result = userService.createUsers(
+                List.of(userRequest, duplicateInBatch, existing, invalid));
+
+        assertEquals(1, result.getCreated());
+        assertEquals(3, result.getFailed());
+        assertEquals(UserBatchResult.Status.CREATED, result.getResults().get(0).getStatus());
+        assertEquals(UserBatchResult.Status.CONFLICT, result.getResults().get(1).getStatus());
+        assertEquals(UserBatchResult.Status.CONFLICT, result.getResults().get(2).getStatus());
+        assertEquals(UserBatchResult.Status.INVALID, result.getResults().get(3).getStatus());
+        assertTrue(result.getResults().get(3).getErrors().containsKey("email"));
+
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(userRepository, times(1)).flush();
+        verify(userEventOutbox, times(1)).enqueueAll(
+                argThat(events -> events.size() == 1 && events.get(0).getUserId().equals(1L)));
+    }
+
+    @Test
+    void createUsers_EmailTakenAfterCheck_ReportsConflictForThatUserOnly() {
+        UserRequest taken = UserRequest.builder()
+                .name("Jane Doe")
+                .email("jane@example.com")
+                .age(25)
+                .build();
+        User takenUser = User.builder().id(2L).name("Jane Doe").email("jane@example.com").age(25).build();
+        when(userMapper.toEntity(userRequest)).thenReturn(user);
+        when(userMapper.toEntity(taken)).thenReturn(takenUser);
+        when(userRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userMapper.toResponse(user)).thenReturn(userResponse);
+        // Почту jane заняли между проверкой и вставкой: падает пачка, затем только её вставка
+        DataIntegrityViolationException duplicate = new DataIntegrityViolationException("duplicate key",
+                new ConstraintViolationException("duplicate key", new SQLException("duplicate key", "23505"),
+                        "users_email_active_key"));
+        doThrow(duplicate).doNothing().doThrow(duplicate).when(userRepository).flush();
+
+        UserBatchResponse result = userService.createUsers(List.of(userRequest, taken));
+
+        assertEquals(UserBatchResult.Status.CREATED, result.getResults().get(0).getStatus());
+        assertEquals(UserBatchResult.Status.CONFLICT, result.getResults().get(1).getStatus());
+        // Каждая попытка в своей транзакции: откат пачки не задевает остальные
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(2)).rollback(any());
+        verify(emailExistenceFilter).add("john@example.com");
+        verify(emailExistenceFilter, never()).add("jane@example.com");
+    }
+
+    @Test
+    void createUsers_TooManyUsers_ThrowsException() {
+        List<UserRequest> requests = Collections.nCopies(10001, userRequest);
+
+        assertThrows(BatchSizeExceededException.class, () -> userService.createUsers(requests));
+        verifyNoInteractions(userRepository);
+    }
+
     @Test
     void getUserById_Success() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
@@ -100,6 +273,48 @@ class UserServiceTest {
         assertEquals(1L, result.getUserId());
     }
 
+    @Test
+    void getUserById_LoadsInReadOnlyTransaction() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userMapper.toResponse(any(User.class))).thenReturn(userResponse);
+
+        userService.getUserById(1L);
+
+        // Только транзакция на чтение уходит на реплику
+        InOrder inOrder = inOrder(transactionManager, userRepository);
+        inOrder.verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        inOrder.verify(userRepository).findById(1L);
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void getUserById_AsyncCacheLoadReadsPrimaryInReadOnlyTransaction() throws Exception {
+        ExecutorService cacheExecutor = Executors.newSingleThreadExecutor();
+        CaffeineCacheManager asyncCacheManager = new CaffeineCacheManager(CacheConfig.USERS_CACHE);
+        asyncCacheManager.setCaffeine(Caffeine.newBuilder().executor(cacheExecutor));
+        asyncCacheManager.setAsyncCacheMode(true);
+        when(cacheManager.getCache(CacheConfig.USERS_CACHE))
+                .thenReturn(asyncCacheManager.getCache(CacheConfig.USERS_CACHE));
+        List<String> transactions = new ArrayList<>();
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            TransactionDefinition definition = invocation.getArgument(0);
+            transactions.add(Thread.currentThread().getName() + " readOnly=" + definition.isReadOnly()
+                    + " pinned=" + ReadYourWritesContext.isPinnedToPrimary());
+            return new SimpleTransactionStatus();
+        });
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userMapper.toResponse(any(User.class))).thenReturn(userResponse);
+        String loaderThread = cacheExecutor.submit(() -> Thread.currentThread().getName()).get();
+
+        try {
+            assertEquals(userResponse, userService.getUserById(1L));
+        } finally {
+            cacheExecutor.shutdown();
+        }
+
+        assertEquals(List.of(loaderThread + " readOnly=true pinned=true"), transactions);
+    }
+
     @Test
     void getUserById_NotFound_ThrowsException() {
         when(userRepository.findById(1L)).thenReturn(Optional.empty());
@@ -108,16 +323,126 @@ class UserServiceTest {
                 () -> userService.getUserById(1L));
     }
 
+    @Test
+    void getUsersByIds_LoadsMissesFromPrimary() {
+        List<Boolean> pinned = new ArrayList<>();
+        when(userRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            pinned.add(ReadYourWritesContext.isPinnedToPrimary());
+            return List.of(user);
+        });
+        when(userMapper.toResponse(user)).thenReturn(userResponse);
+
+        userService.getUsersByIds(List.of(1L));
+
+        // Промахи попадают в кэш: отстающая реплика оставила бы в нём старую строку
+        assertEquals(List.of(true), pinned);
+        assertFalse(ReadYourWritesContext.isPinnedToPrimary());
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+    @Test
+    void getUsersByIds_LoadsMissesInChunks() {
+        List<Long> ids = LongStream.rangeClosed(1, 501).boxed().toList();
+        when(userRepository.findAllById(anyIterable())).thenReturn(List.of(user));
+        when(userMapper.toResponse(user)).thenReturn(userResponse);
+
+        UserMultiGetResponse result = userService.getUsersByIds(ids);
+
+        verify(userRepository).findAllById(ids.subList(0, 500));
+        verify(userRepository).findAllById(ids.subList(500, 501));
+        assertEquals(List.of(userResponse), result.getUsers());
+        assertEquals(ids.subList(1, 501), result.getMissingIds());
+    }
+
+    @Test
+    void getUsersByIds_TooManyIds_ThrowsException() {
+        List<Long> ids = LongStream.rangeClosed(1, 1001).boxed().toList();
+
+        assertThrows(BatchSizeExceededException.class, () -> userService.getUsersByIds(ids));
+        verifyNoInteractions(userRepository);
+    }
+
     @Test
     void getAllUsers_Success() {
         List<User> users = Arrays.asList(user, user);
-        when(userRepository.findAll()).thenReturn(users);
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(21))).thenReturn(users);
         when(userMapper.toResponse(any(User.class))).thenReturn(userResponse);
 
-        List<UserResponse> results = userService.getAllUsers();
+        UserPage result = userService.getAllUsers(null, 20, UserSortField.ID);
+
+        assertEquals(2, result.getUsers().size());
+        assertNull(result.getNextCursor());
+        verify(userRepository, never()).findAll();
+    }
 
-        assertEquals(2, results.size());
-        verify(userRepository, times(1)).findAll();
+    @Test
+    void getAllUsers_MoreThanLimit_ReturnsNextCursor() {
+        User second = User.builder().id(2L).name("Jane Doe").email("jane@example.com").build();
+        User third = User.builder().id(3L).name("Jim Doe").email("jim@example.com").build();
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3)))
+                .thenReturn(Arrays.asList(user, second, third));
+        when(userMapper.toResponse(any(User.class))).thenAnswer(invocation -> {
+            User source = invocation.getArgument(0);
+            return UserResponse.builder().userId(source.getId()).name(source.getName()).build();
+        });
+
+        UserPage result = userService.getAllUsers(null, 2, UserSortField.ID);
+
+        assertEquals(2, result.getUsers().size());
+        assertEquals(2L, result.getNextCursor());
+    }
+
+    @Test
+    void getAllUsers_SortedByCreatedAt_SeeksFromCursor() {
+        LocalDateTime createdAt = user.getCreatedAt();
+        when(userRepository.findCreatedAtById(1L)).thenReturn(Optional.of(createdAt));
+        when(userRepository.findPageAfterCreatedAt(createdAt, 1L, Limit.of(11))).thenReturn(List.of());
+
+        UserPage result = userService.getAllUsers(1L, 10, UserSortField.CREATED_AT);
+
+        assertTrue(result.getUsers().isEmpty());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void getAllUsers_UnknownCursor_ThrowsException() {
+        when(userRepository.findCreatedAtById(42L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> userService.getAllUsers(42L, 10, UserSortField.CREATED_AT));
+    }
+
+    @Test
+    void exportUsers_StreamsAndDetachesEveryUser() {
+        User second = User.builder().id(2L).name("Jane Doe").email("jane@example.com").build();
+        when(userRepository.streamAllOrderedById()).thenReturn(Stream.of(user, second));
+        when(userMapper.toResponse(any(User.class))).thenReturn(userResponse);
+
+        List<UserResponse> exported = new ArrayList<>();
+        userService.exportUsers(exported::add);
+
+        assertEquals(2, exported.size());
+        verify(entityManager).detach(user);
+        verify(entityManager).detach(second);
+    }
+
+    @Test
+    void searchUsers_ClampsLimitToMaxSearchSize() {
+        when(userRepository.searchByName("john", 50)).thenReturn(List.of(user));
+        when(userMapper.toResponse(user)).thenReturn(userResponse);
+
+        List<UserResponse> result = userService.searchUsers("john", 1000);
+
+        assertEquals(List.of(userResponse), result);
+        verify(userRepository).searchByName("john", 50);
+    }
+
+    @Test
+    void findUserByEmail_Success() {
+        when(userRepository.findByEmail("John@Example.com")).thenReturn(Optional.of(user));
+        when(userMapper.toResponse(user)).thenReturn(userResponse);
+
+        assertEquals(Optional.of(userResponse), userService.findUserByEmail("John@Example.com"));
     }
 
     @Test
@@ -137,22 +462,96 @@ class UserServiceTest {
 
         assertNotNull(result);
         verify(userRepository, times(1)).save(user);
+        verify(emailExistenceFilter).add("updated@example.com");
+        verify(emailExistenceFilter).remove("john@example.com");
+        verify(userEventOutbox, times(1)).enqueue(
+                argThat(event -> event.getEventType() == UserEvent.EventType.USER_UPDATED));
+    }
+
+    @Test
+    void patchUser_VersionMatches_UpdatesInSingleStatement() {
+        UserPatchRequest patchRequest = UserPatchRequest.builder().name("Johnny").version(3L).build();
+        when(userRepository.updateIfVersionMatches(1L, 3L, "Johnny", null, null)).thenReturn(Optional.of(user));
+        when(userMapper.toResponse(user)).thenReturn(userResponse);
+
+        UserResponse result = userService.patchUser(1L, patchRequest);
+
+        assertEquals(userResponse, result);
+        verify(userRepository, never()).findById(anyLong());
+        verify(userRepository, never()).existsByEmailAndIdNot(anyString(), anyLong());
+        verify(userEventOutbox, times(1)).enqueue(
+                argThat(event -> event.getEventType() == UserEvent.EventType.USER_UPDATED));
+    }
+
+    @Test
+    void patchUser_StaleVersion_ThrowsConflict() {
+        UserPatchRequest patchRequest = UserPatchRequest.builder().age(40).version(2L).build();
+        when(userRepository.updateIfVersionMatches(1L, 2L, null, null, 40)).thenReturn(Optional.empty());
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(VersionConflictException.class, () -> userService.patchUser(1L, patchRequest));
+        verify(userEventOutbox, never()).enqueue(any());
+    }
+
+    @Test
+    void patchUser_NotFound_ThrowsException() {
+        UserPatchRequest patchRequest = UserPatchRequest.builder().age(40).version(2L).build();
+        when(userRepository.updateIfVersionMatches(1L, 2L, null, null, 40)).thenReturn(Optional.empty());
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> userService.patchUser(1L, patchRequest));
+    }
+
+    @Test
+    void patchUser_EmailTaken_ThrowsDuplicateEmail() {
+        UserPatchRequest patchRequest = UserPatchRequest.builder().email("taken@example.com").version(1L).build();
+        when(userRepository.updateIfVersionMatches(1L, 1L, null, "taken@example.com", null))
+                .thenThrow(new DataIntegrityViolationException("duplicate key", new ConstraintViolationException(
+                        "duplicate key", new SQLException("duplicate key", "23505"), "users_email_key")));
+
+        assertThrows(DuplicateEmailException.class, () -> userService.patchUser(1L, patchRequest));
     }
 
     @Test
     void deleteUser_Success() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        doNothing().when(userRepository).deleteById(1L);
+        when(userRepository.softDeleteAllByIdReturning(List.of(1L))).thenReturn(List.of(user));
 
         assertDoesNotThrow(() -> userService.deleteUser(1L));
-        verify(userRepository, times(1)).deleteById(1L);
+        verify(userRepository, never()).findById(anyLong());
+        verify(emailExistenceFilter).remove("john@example.com");
+        verify(userEventOutbox).enqueue(argThat(event ->
+                event.getEventType() == UserEvent.EventType.USER_DELETED && event.getUserId().equals(1L)));
     }
 
     @Test
     void deleteUser_NotFound_ThrowsException() {
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.softDeleteAllByIdReturning(List.of(1L))).thenReturn(List.of());
 
         assertThrows(ResourceNotFoundException.class,
                 () -> userService.deleteUser(1L));
+        verifyNoInteractions(userEventOutbox);
+    }
+
+    @Test
+    void deleteUsers_DeletesInChunksAndEnqueuesEventsOnce() {
+        List<Long> ids = LongStream.rangeClosed(1, 1001).boxed().toList();
+        User last = User.builder().id(1001L).name("Jane Doe").email("jane@example.com").build();
+        when(userRepository.softDeleteAllByIdReturning(ids.subList(0, 1000))).thenReturn(List.of(user));
+        when(userRepository.softDeleteAllByIdReturning(ids.subList(1000, 1001))).thenReturn(List.of(last));
+
+        UserBulkDeleteResponse result = userService.deleteUsers(ids);
+
+        assertEquals(List.of(1L, 1001L), result.getDeletedIds());
+        assertEquals(999, result.getMissingIds().size());
+        verify(userEventOutbox, times(1)).enqueueAll(argThat(events -> events.size() == 2));
+        verify(emailExistenceFilter).remove("jane@example.com");
+    }
+
+    @Test
+    void deleteUsers_TooManyIds_ThrowsException() {
+        List<Long> ids = LongStream.rangeClosed(1, 10001).boxed().toList();
+
+        assertThrows(BatchSizeExceededException.class, () -> userService.deleteUsers(ids));
+        verifyNoInteractions(userRepository);
     }
 }
\ No newline at end of file